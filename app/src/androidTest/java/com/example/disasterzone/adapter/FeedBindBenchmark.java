@@ -0,0 +1,127 @@
+package com.example.disasterzone.adapter;
+
+import android.content.Context;
+import android.graphics.ColorMatrix;
+import android.graphics.ColorMatrixColorFilter;
+import android.view.ContextThemeWrapper;
+import android.view.View;
+import android.widget.FrameLayout;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.core.content.ContextCompat;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.disasterzone.R;
+import com.example.disasterzone.model.Post;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Locale;
+
+/**
+ * Compares allocations per feed row bind: the old inline formatting and styling
+ * against binding a prebuilt {@link PostViewModel}. Read the allocationCount
+ * metric in the benchmark output; timings from debuggable builds are not meaningful.
+ */
+@RunWith(AndroidJUnit4.class)
+public class FeedBindBenchmark {
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private Context context;
+    private FeedAdapter adapter;
+    private FeedAdapter.ViewHolder holder;
+    private Post[] posts;
+    private PostViewModel[] models;
+
+    @Before
+    public void setUp() {
+        context = new ContextThemeWrapper(
+                InstrumentationRegistry.getInstrumentation().getTargetContext(), R.style.Theme_DisasterZone);
+        adapter = new FeedAdapter(context, new ArrayList<>());
+        holder = adapter.onCreateViewHolder(new FrameLayout(context), 0);
+
+        // Alternate active and ended posts so styling changes on every bind
+        long now = System.currentTimeMillis();
+        posts = new Post[] {
+                new Post("p1", "u1", "Alice", "Flooding on the main road", null, 3.1, 101.6, now),
+                new Post("p2", "u2", "Bob", "Landslide near the school", null, 3.2, 101.7, now - 60000, false, now - 1000)
+        };
+        PostModelBuilder builder = new PostModelBuilder();
+        models = new PostViewModel[] {builder.create(posts[0]), builder.create(posts[1])};
+        builder.shutdown();
+    }
+
+    @Test
+    public void legacyBind() {
+        BenchmarkState state = benchmarkRule.getState();
+        int i = 0;
+        while (state.keepRunning()) {
+            legacyBindContent(holder, posts[i++ & 1]);
+        }
+    }
+
+    @Test
+    public void modelBind() {
+        BenchmarkState state = benchmarkRule.getState();
+        int i = 0;
+        while (state.keepRunning()) {
+            adapter.bindContent(holder, models[i++ & 1]);
+        }
+    }
+
+    // The text and styling part of FeedAdapter.onBindViewHolder before view models
+    private void legacyBindContent(FeedAdapter.ViewHolder holder, Post post) {
+        boolean isActive = post.isActive;
+        holder.tvUsername.setText(post.username != null ? post.username : "Anonymous");
+        holder.tvDesc.setText(post.description != null ? post.description : "");
+
+        SimpleDateFormat sdf = new SimpleDateFormat("dd MMM, hh:mm a", Locale.getDefault());
+        String dateText = sdf.format(new Date(post.timestamp));
+        if (!isActive && post.endedTimestamp > 0) {
+            dateText += " • Ended: " + sdf.format(new Date(post.endedTimestamp));
+        }
+        holder.tvDate.setText(dateText);
+
+        if (isActive) {
+            holder.tvStatusBadge.setText("ACTIVE");
+            holder.tvStatusBadge.setBackgroundResource(R.drawable.bg_status_badge_active);
+        } else {
+            holder.tvStatusBadge.setText("INACTIVE");
+            holder.tvStatusBadge.setBackgroundResource(R.drawable.bg_status_badge_inactive);
+        }
+        holder.tvStatusBadge.setVisibility(View.VISIBLE);
+
+        if (isActive) {
+            holder.postCard.setCardBackgroundColor(ContextCompat.getColor(context, R.color.white));
+            holder.tvUsername.setTextColor(ContextCompat.getColor(context, R.color.active_text));
+            holder.tvDesc.setTextColor(ContextCompat.getColor(context, R.color.active_text));
+            holder.tvDate.setTextColor(ContextCompat.getColor(context, R.color.active_date));
+            holder.tvLikeCount.setTextColor(ContextCompat.getColor(context, R.color.active_date));
+            holder.imgLike.clearColorFilter();
+            holder.imgPost.clearColorFilter();
+        } else {
+            holder.postCard.setCardBackgroundColor(ContextCompat.getColor(context, R.color.inactive_background));
+            holder.tvUsername.setTextColor(ContextCompat.getColor(context, R.color.inactive_text));
+            holder.tvDesc.setTextColor(ContextCompat.getColor(context, R.color.inactive_text));
+            holder.tvDate.setTextColor(ContextCompat.getColor(context, R.color.inactive_date));
+            holder.tvLikeCount.setTextColor(ContextCompat.getColor(context, R.color.inactive_date));
+            holder.imgLike.setColorFilter(ContextCompat.getColor(context, R.color.inactive_color));
+            ColorMatrix matrix = new ColorMatrix();
+            matrix.setSaturation(0);
+            holder.imgPost.setColorFilter(new ColorMatrixColorFilter(matrix));
+        }
+        holder.imgPost.setAlpha(isActive ? 1.0f : 0.7f);
+        holder.btnQr.setEnabled(isActive);
+        holder.btnQr.setAlpha(isActive ? 1.0f : 0.5f);
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.disasterzone.map;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.example.disasterzone.util.GeoUtil;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * One radius query plus one 5-nearest query over 100k clustered points, through
+ * {@link SpatialIndex} versus a full scan. Correctness is covered by SpatialIndexTest;
+ * compare the two timings in the benchmark output.
+ */
+@RunWith(AndroidJUnit4.class)
+public class SpatialIndexBenchmark {
+
+    private static final int POINTS = 100_000;
+    private static final int QUERIES = 50;
+    private static final double RADIUS_KM = 1.0;
+    private static final int K = 5;
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private final SpatialIndex index = new SpatialIndex();
+    private final double[] lats = new double[POINTS];
+    private final double[] lons = new double[POINTS];
+    private final double[] queryLat = new double[QUERIES];
+    private final double[] queryLon = new double[QUERIES];
+
+    @Before
+    public void setUp() {
+        Random random = new Random(42);
+        double[][] centers = {{3.139, 101.6869}, {1.3521, 103.8198}, {-6.2088, 106.8456}, {14.5995, 120.9842}};
+        for (int i = 0; i < POINTS; i++) {
+            double[] center = centers[i % centers.length];
+            lats[i] = center[0] + random.nextGaussian() * 0.5;
+            lons[i] = center[1] + random.nextGaussian() * 0.5;
+            index.put("post" + i, lats[i], lons[i]);
+        }
+        for (int q = 0; q < QUERIES; q++) {
+            int anchor = random.nextInt(POINTS);
+            queryLat[q] = lats[anchor];
+            queryLon[q] = lons[anchor];
+        }
+    }
+
+    @Test
+    public void indexed() {
+        BenchmarkState state = benchmarkRule.getState();
+        int q = 0;
+        while (state.keepRunning()) {
+            index.withinRadius(queryLat[q], queryLon[q], RADIUS_KM);
+            index.nearest(queryLat[q], queryLon[q], K);
+            q = (q + 1) % QUERIES;
+        }
+    }
+
+    @Test
+    public void fullScan() {
+        double[] distances = new double[POINTS];
+        BenchmarkState state = benchmarkRule.getState();
+        int q = 0;
+        while (state.keepRunning()) {
+            // The sorted distances answer both the radius and the nearest query
+            for (int i = 0; i < POINTS; i++) {
+                distances[i] = GeoUtil.distanceKm(queryLat[q], queryLon[q], lats[i], lons[i]);
+            }
+            Arrays.sort(distances);
+            q = (q + 1) % QUERIES;
+        }
+    }
+}
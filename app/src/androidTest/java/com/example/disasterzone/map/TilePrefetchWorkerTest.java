@@ -0,0 +1,137 @@
+package com.example.disasterzone.map;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+import androidx.work.Data;
+import androidx.work.ListenableWorker;
+import androidx.work.testing.TestWorkerBuilder;
+
+import com.example.disasterzone.data.LocalDatabase;
+import com.example.disasterzone.data.PostEntity;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.osmdroid.tileprovider.cachemanager.CacheManager;
+import org.osmdroid.tileprovider.modules.SqlTileWriter;
+import org.osmdroid.tileprovider.tilesource.OnlineTileSourceBase;
+import org.osmdroid.util.BoundingBox;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Runs the prefetch against a tiny local tile server and checks the tiles around an
+ * active disaster end up in the cache the map reads from.
+ */
+@RunWith(AndroidJUnit4.class)
+public class TilePrefetchWorkerTest {
+
+    private static final String POST_ID = "tilePrefetchTestPost";
+    private static final double LAT = 3.1390;
+    private static final double LON = 101.6869;
+    private static final int ZOOM = 14;
+
+    private Context context;
+    private ServerSocket server;
+    private final AtomicInteger requests = new AtomicInteger();
+
+    @Before
+    public void setUp() throws Exception {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+
+        PostEntity post = new PostEntity();
+        post.postId = POST_ID;
+        post.latitude = LAT;
+        post.longitude = LON;
+        post.isActive = true;
+        post.timestamp = System.currentTimeMillis();
+        LocalDatabase.get(context).posts().upsert(post);
+
+        Bitmap tile = Bitmap.createBitmap(256, 256, Bitmap.Config.RGB_565);
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        tile.compress(Bitmap.CompressFormat.PNG, 100, png);
+        server = new ServerSocket(0, 50, InetAddress.getByName("127.0.0.1"));
+        Thread serverThread = new Thread(() -> serve(png.toByteArray()));
+        serverThread.setDaemon(true);
+        serverThread.start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        LocalDatabase.get(context).posts().delete(POST_ID);
+        server.close();
+    }
+
+    @Test
+    public void cachesTilesAroundActiveDisasters() {
+        String baseUrl = "http://127.0.0.1:" + server.getLocalPort() + "/";
+        Data input = new Data.Builder()
+                .putString(TilePrefetchWorker.KEY_TILE_URL, baseUrl)
+                .putInt(TilePrefetchWorker.KEY_MIN_ZOOM, ZOOM)
+                .putInt(TilePrefetchWorker.KEY_MAX_ZOOM, ZOOM)
+                .putDouble(TilePrefetchWorker.KEY_RADIUS_KM, 0.5)
+                .build();
+        TilePrefetchWorker worker = TestWorkerBuilder.from(context, TilePrefetchWorker.class, Executors.newSingleThreadExecutor())
+                .setInputData(input)
+                .build();
+
+        ListenableWorker.Result result = worker.doWork();
+
+        assertTrue(result instanceof ListenableWorker.Result.Success);
+        assertTrue(requests.get() > 0);
+        OnlineTileSourceBase source = MapTiles.sourceFor(baseUrl);
+        SqlTileWriter writer = new SqlTileWriter();
+        try {
+            BoundingBox around = new BoundingBox(LAT + 0.001, LON + 0.001, LAT - 0.001, LON - 0.001);
+            for (Long tile : CacheManager.getTilesCoverage(around, ZOOM, ZOOM)) {
+                assertTrue(writer.exists(source, tile));
+            }
+        } finally {
+            writer.onDetach();
+        }
+
+        // A second run finds everything cached and downloads nothing
+        int served = requests.get();
+        worker = TestWorkerBuilder.from(context, TilePrefetchWorker.class, Executors.newSingleThreadExecutor())
+                .setInputData(input)
+                .build();
+        worker.doWork();
+        assertEquals(served, requests.get());
+    }
+
+    // Answers every request with the same tile
+    private void serve(byte[] body) {
+        while (!server.isClosed()) {
+            try (Socket socket = server.accept()) {
+                BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+                String line;
+                while ((line = in.readLine()) != null && !line.isEmpty()) {
+                    // Skip the request headers
+                }
+                requests.incrementAndGet();
+                OutputStream out = socket.getOutputStream();
+                out.write(("HTTP/1.1 200 OK\r\nContent-Type: image/png\r\nContent-Length: " + body.length
+                        + "\r\nConnection: close\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+                out.write(body);
+                out.flush();
+            } catch (Exception e) {
+                // Closed by tearDown
+            }
+        }
+    }
+}
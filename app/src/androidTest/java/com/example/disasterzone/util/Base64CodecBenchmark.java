@@ -0,0 +1,83 @@
+package com.example.disasterzone.util;
+
+import android.util.Base64;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Random;
+
+/**
+ * Heap churn per image on the upload and download paths, the old android.util.Base64
+ * pipeline versus {@link Base64Codec}. Read the allocationCount metric in the benchmark
+ * output; correctness is covered by Base64CodecTest. The payload stands in for
+ * compressor output of report size.
+ */
+@RunWith(AndroidJUnit4.class)
+public class Base64CodecBenchmark {
+
+    private static final int PAYLOAD = 80 * 1024;
+    private static final int CHUNK = 4096; // Compressors hand over their output in blocks
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private byte[] payload;
+    private String base64;
+
+    @Before
+    public void setUp() {
+        payload = new byte[PAYLOAD];
+        new Random(42).nextBytes(payload);
+        base64 = Base64.encodeToString(payload, Base64.DEFAULT);
+    }
+
+    // Old upload: ByteArrayOutputStream -> toByteArray -> encodeToString
+    @Test
+    public void legacyEncode() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            for (int off = 0; off < PAYLOAD; off += CHUNK) {
+                out.write(payload, off, Math.min(CHUNK, PAYLOAD - off));
+            }
+            Base64.encodeToString(out.toByteArray(), Base64.DEFAULT);
+        }
+    }
+
+    @Test
+    public void streamingEncode() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            Base64Codec.Encoder encoder = new Base64Codec.Encoder(PAYLOAD);
+            for (int off = 0; off < PAYLOAD; off += CHUNK) {
+                encoder.write(payload, off, Math.min(CHUNK, PAYLOAD - off));
+            }
+            encoder.toString();
+        }
+    }
+
+    // Old download: a fresh byte[] for every image
+    @Test
+    public void legacyDecode() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            Base64.decode(base64, Base64.DEFAULT);
+        }
+    }
+
+    @Test
+    public void pooledDecode() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            Base64Codec.decodePooled(base64);
+        }
+    }
+}
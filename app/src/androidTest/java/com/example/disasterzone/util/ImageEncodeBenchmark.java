@@ -0,0 +1,154 @@
+package com.example.disasterzone.util;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.LinearGradient;
+import android.graphics.Paint;
+import android.graphics.Shader;
+import android.os.Build;
+import android.util.Log;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Encode time against output size on a fixed, generated image corpus: the old fixed
+ * JPEG quality versus the budget search in JPEG and WebP. Timings come from the
+ * benchmark output; sizes and chosen qualities are logged under the "ImageEncodeBenchmark" tag.
+ */
+@RunWith(Parameterized.class)
+public class ImageEncodeBenchmark {
+
+    private static final String TAG = "ImageEncodeBenchmark";
+    private static final int WIDTH = 800, HEIGHT = 600;
+
+    @Parameterized.Parameters(name = "{0}")
+    public static List<Object[]> corpus() {
+        return Arrays.asList(new Object[][] {{"flat"}, {"scene"}, {"edges"}, {"noise"}});
+    }
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private final String imageName;
+    private Bitmap image;
+
+    public ImageEncodeBenchmark(String imageName) {
+        this.imageName = imageName;
+    }
+
+    @Before
+    public void setUp() {
+        image = generate(imageName);
+    }
+
+    @After
+    public void tearDown() {
+        image.recycle();
+    }
+
+    @Test
+    public void fixedJpeg60() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            out.reset();
+            image.compress(Bitmap.CompressFormat.JPEG, 60, out);
+        }
+        Log.i(TAG, imageName + " fixedJpeg60: " + out.size() + " bytes");
+    }
+
+    @Test
+    public void budgetJpeg() {
+        measure(Bitmap.CompressFormat.JPEG, ImageUtil.IMAGE_MAX_BYTES, "budgetJpeg");
+    }
+
+    @Test
+    public void budgetWebp() {
+        assumeTrue(Build.VERSION.SDK_INT >= Build.VERSION_CODES.R);
+        measure(Bitmap.CompressFormat.WEBP_LOSSY, ImageUtil.IMAGE_MAX_BYTES, "budgetWebp");
+    }
+
+    @Test
+    public void lowBandwidthProfile() {
+        UploadProfile profile = UploadProfile.LOW_BANDWIDTH;
+        measure(ImageUtil.preferredFormat(), profile.imageMaxBytes, "lowBandwidth");
+    }
+
+    private void measure(Bitmap.CompressFormat format, int maxBytes, String label) {
+        ImageUtil.Encoded encoded = null;
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            encoded = ImageUtil.encode(image, maxBytes, format);
+        }
+        Log.i(TAG, imageName + " " + label + ": " + encoded.bytes.length + " bytes, q" + encoded.quality
+                + ", " + encoded.width + "x" + encoded.height);
+        assertTrue(imageName + " over budget", encoded.bytes.length <= maxBytes);
+    }
+
+    // Deterministic stand-ins for typical report photos, from easy to worst case
+    private static Bitmap generate(String name) {
+        Bitmap bitmap = Bitmap.createBitmap(WIDTH, HEIGHT, Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(bitmap);
+        Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        Random random = new Random(42);
+        switch (name) {
+            case "flat":
+                // Sky over ground, smooth gradients only
+                paint.setShader(new LinearGradient(0, 0, 0, HEIGHT,
+                        Color.rgb(120, 170, 230), Color.rgb(90, 80, 60), Shader.TileMode.CLAMP));
+                canvas.drawRect(0, 0, WIDTH, HEIGHT, paint);
+                break;
+            case "scene":
+                // Gradient background with shapes and a textured patch, roughly photo-like
+                paint.setShader(new LinearGradient(0, 0, WIDTH, HEIGHT,
+                        Color.rgb(200, 190, 170), Color.rgb(60, 70, 90), Shader.TileMode.CLAMP));
+                canvas.drawRect(0, 0, WIDTH, HEIGHT, paint);
+                paint.setShader(null);
+                for (int i = 0; i < 60; i++) {
+                    paint.setColor(Color.rgb(random.nextInt(256), random.nextInt(256), random.nextInt(256)));
+                    canvas.drawCircle(random.nextInt(WIDTH), random.nextInt(HEIGHT), 10 + random.nextInt(60), paint);
+                }
+                for (int y = HEIGHT / 2; y < HEIGHT; y++) {
+                    for (int x = 0; x < WIDTH / 2; x++) {
+                        int v = 100 + random.nextInt(60);
+                        bitmap.setPixel(x, y, Color.rgb(v, v - 20, v - 40));
+                    }
+                }
+                break;
+            case "edges":
+                // High-contrast stripes and lines, like signs or debris
+                canvas.drawColor(Color.WHITE);
+                paint.setColor(Color.BLACK);
+                paint.setStrokeWidth(2);
+                for (int i = 0; i < 400; i++) {
+                    canvas.drawLine(random.nextInt(WIDTH), random.nextInt(HEIGHT),
+                            random.nextInt(WIDTH), random.nextInt(HEIGHT), paint);
+                }
+                break;
+            default:
+                // Pure noise, the worst case for any codec
+                int[] pixels = new int[WIDTH * HEIGHT];
+                for (int i = 0; i < pixels.length; i++) pixels[i] = 0xFF000000 | random.nextInt(0x1000000);
+                bitmap.setPixels(pixels, 0, WIDTH, 0, 0, WIDTH, HEIGHT);
+                break;
+        }
+        return bitmap;
+    }
+}
@@ -10,13 +10,13 @@ import android.content.Intent;
 import android.content.SharedPreferences;
 import android.content.pm.PackageManager;
 import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
 import android.media.AudioAttributes;
 import android.net.Uri;
 import android.os.Build;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
 import android.provider.MediaStore;
-import android.util.Base64;
 import android.view.View;
 import android.widget.Button;
 import android.widget.EditText;
@@ -32,19 +32,15 @@ import androidx.core.app.NotificationCompat;
 import androidx.core.app.NotificationManagerCompat;
 import androidx.core.content.ContextCompat;
 
-import com.example.disasterzone.model.Post;
-import com.example.disasterzone.model.User;
+import com.example.disasterzone.data.ReportOutbox;
+import com.example.disasterzone.util.BitmapDecoder;
 import com.google.android.gms.location.FusedLocationProviderClient;
 import com.google.android.gms.location.LocationServices;
 import com.google.firebase.auth.FirebaseAuth;
-import com.google.firebase.database.DataSnapshot;
-import com.google.firebase.database.DatabaseError;
-import com.google.firebase.database.DatabaseReference;
 import com.google.firebase.database.FirebaseDatabase;
-import com.google.firebase.database.ValueEventListener;
 
-import java.io.ByteArrayOutputStream;
-import java.io.InputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class CameraActivity extends AppCompatActivity {
 
@@ -60,9 +56,13 @@ public class CameraActivity extends AppCompatActivity {
     private ProgressBar progressBar;
 
     private Bitmap capturedBitmap;
-    private DatabaseReference mDatabase;
     private FirebaseAuth mAuth;
 
+    // Gallery photos are decoded here, never on the UI thread
+    private final ExecutorService decodeExecutor = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private int decodeGeneration = 0;
+
     private FusedLocationProviderClient fusedLocationClient;
     private double currentLatitude = 0.0;
     private double currentLongitude = 0.0;
@@ -73,7 +73,6 @@ public class CameraActivity extends AppCompatActivity {
         setContentView(R.layout.activity_camera);
 
         mAuth = FirebaseAuth.getInstance();
-        mDatabase = FirebaseDatabase.getInstance().getReference();
         fusedLocationClient = LocationServices.getFusedLocationProviderClient(this);
 
         imgPreview = findViewById(R.id.imgPreview);
@@ -202,18 +201,42 @@ public class CameraActivity extends AppCompatActivity {
         if (requestCode == GALLERY_REQUEST_CODE && resultCode == RESULT_OK && data != null) {
             Uri selectedImageUri = data.getData();
             if (selectedImageUri != null) {
-                try {
-                    InputStream imageStream = getContentResolver().openInputStream(selectedImageUri);
-                    capturedBitmap = BitmapFactory.decodeStream(imageStream);
-                    showImageInPreview(capturedBitmap);
-                } catch (Exception e) {
-                    e.printStackTrace();
-                    Toast.makeText(this, "Failed to load image", Toast.LENGTH_SHORT).show();
-                }
+                loadGalleryImage(selectedImageUri);
             }
         }
     }
 
+    // Two-pass sampled decode straight to upload size, so a 50 MP photo never hits memory in full
+    private void loadGalleryImage(Uri uri) {
+        int generation = ++decodeGeneration;
+        int longEdge = getResources().getInteger(R.integer.upload_long_edge);
+        long budget = getResources().getInteger(R.integer.upload_decode_budget_kb) * 1024L;
+        progressBar.setVisibility(View.VISIBLE);
+        btnUploadReport.setEnabled(false);
+
+        decodeExecutor.execute(() -> {
+            Bitmap bitmap = null;
+            try {
+                bitmap = BitmapDecoder.decode(getContentResolver(), uri, longEdge, budget);
+            } catch (Exception | OutOfMemoryError e) {
+                e.printStackTrace();
+            }
+            Bitmap result = bitmap;
+            mainHandler.post(() -> {
+                // A newer pick or a closed screen wins
+                if (isDestroyed() || generation != decodeGeneration) return;
+                progressBar.setVisibility(View.GONE);
+                btnUploadReport.setEnabled(true);
+                if (result == null) {
+                    Toast.makeText(this, "Failed to load image", Toast.LENGTH_SHORT).show();
+                    return;
+                }
+                capturedBitmap = result;
+                showImageInPreview(result);
+            });
+        });
+    }
+
     private void showImageInPreview(Bitmap bitmap) {
         imgPreview.setImageBitmap(bitmap);
         imgPreview.setPadding(0, 0, 0, 0);
@@ -238,56 +261,23 @@ public class CameraActivity extends AppCompatActivity {
             return;
         }
 
+        // Queued on disk and uploaded by a background worker, so leaving the screen
+        // or losing the connection no longer loses the report
+        String userId = mAuth.getCurrentUser().getUid();
         btnUploadReport.setEnabled(false);
         progressBar.setVisibility(View.VISIBLE);
-
-        // Resize bitmap
-        Bitmap resizedBitmap = Bitmap.createScaledBitmap(capturedBitmap, 800, 800, true);
-
-        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-        resizedBitmap.compress(Bitmap.CompressFormat.JPEG, 60, byteArrayOutputStream);
-        String imageBase64 = Base64.encodeToString(byteArrayOutputStream.toByteArray(), Base64.DEFAULT);
-
-        String userId = mAuth.getCurrentUser().getUid();
-
-        mDatabase.child("users").child(userId).addListenerForSingleValueEvent(new ValueEventListener() {
-            @Override
-            public void onDataChange(@NonNull DataSnapshot snapshot) {
-                String username = "Anonymous";
-                if (snapshot.exists()) {
-                    User userProfile = snapshot.getValue(User.class);
-                    if (userProfile != null) username = userProfile.username;
-                }
-
-                String postId = mDatabase.child("posts").push().getKey();
-                Post newPost = new Post(postId, userId, username, description, imageBase64, currentLatitude, currentLongitude, System.currentTimeMillis());
-
-                newPost.isActive = true;
-                newPost.endedTimestamp = 0;
-
-                if (postId != null) {
-                    mDatabase.child("posts").child(postId).setValue(newPost).addOnCompleteListener(task -> {
-                        progressBar.setVisibility(View.GONE);
-                        btnUploadReport.setEnabled(true);
-
-                        if (task.isSuccessful()) {
-                            // Show thank you notification
-                            showThankYouNotification();
-
-                            Toast.makeText(CameraActivity.this, "Posted Successfully!", Toast.LENGTH_SHORT).show();
-                            finish();
-                        } else {
-                            Toast.makeText(CameraActivity.this, "Upload Failed", Toast.LENGTH_SHORT).show();
-                        }
-                    });
-                }
-            }
-
-            @Override
-            public void onCancelled(@NonNull DatabaseError error) {
-                progressBar.setVisibility(View.GONE);
+        ReportOutbox.get(this).enqueue(userId, description, currentLatitude, currentLongitude, capturedBitmap, saved -> {
+            // Confirmed only once the report is on disk; the outbox notifies about a failure itself
+            if (saved) showThankYouNotification();
+            if (isDestroyed()) return;
+            progressBar.setVisibility(View.GONE);
+            if (!saved) {
                 btnUploadReport.setEnabled(true);
+                Toast.makeText(this, "Could not save the report, please try again", Toast.LENGTH_SHORT).show();
+                return;
             }
+            Toast.makeText(this, "Report saved, it will upload in the background", Toast.LENGTH_SHORT).show();
+            finish();
         });
     }
 
@@ -358,4 +348,11 @@ public class CameraActivity extends AppCompatActivity {
         super.onResume();
         getCurrentLocation();
     }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        decodeExecutor.shutdownNow();
+        mainHandler.removeCallbacksAndMessages(null);
+    }
 }
\ No newline at end of file
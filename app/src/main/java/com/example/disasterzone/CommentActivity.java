@@ -13,6 +13,7 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.disasterzone.adapter.CommentAdapter;
+import com.example.disasterzone.data.OfflineStore;
 import com.example.disasterzone.model.Comment;
 import com.example.disasterzone.model.Notification;
 import com.example.disasterzone.model.Post;
@@ -39,6 +40,8 @@ public class CommentActivity extends AppCompatActivity {
     private String postId;
     private DatabaseReference mDatabase;
     private FirebaseAuth mAuth;
+    private OfflineStore offlineStore;
+    private boolean liveDataLoaded = false;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -135,15 +138,26 @@ public class CommentActivity extends AppCompatActivity {
     }
 
     private void loadComments() {
+        // Last known comments first, replaced once the server answers
+        offlineStore = OfflineStore.get(this);
+        offlineStore.loadComments(postId, stored -> {
+            if (liveDataLoaded || isDestroyed()) return;
+            commentList.clear();
+            commentList.addAll(stored);
+            commentAdapter.notifyDataSetChanged();
+        });
+
         mDatabase.child("comments").child(postId).addValueEventListener(new ValueEventListener() {
             @Override
             public void onDataChange(@NonNull DataSnapshot snapshot) {
+                liveDataLoaded = true;
                 commentList.clear();
                 for (DataSnapshot ds : snapshot.getChildren()) {
                     Comment c = ds.getValue(Comment.class);
                     if (c != null) commentList.add(c);
                 }
                 commentAdapter.notifyDataSetChanged();
+                offlineStore.replaceComments(postId, commentList);
             }
             @Override public void onCancelled(@NonNull DatabaseError error) {}
         });
@@ -0,0 +1,28 @@
+package com.example.disasterzone;
+
+import android.app.Application;
+
+import com.example.disasterzone.map.TilePrefetchWorker;
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.database.FirebaseDatabase;
+
+public class DisasterZoneApp extends Application {
+
+    // Ports from firebase.json
+    private static final int DATABASE_EMULATOR_PORT = 9000;
+    private static final int AUTH_EMULATOR_PORT = 9099;
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+
+        // Benchmark builds run against seeded local data; must happen before any other Firebase call
+        if (BuildConfig.USE_FIREBASE_EMULATOR) {
+            FirebaseDatabase.getInstance().useEmulator(BuildConfig.FIREBASE_EMULATOR_HOST, DATABASE_EMULATOR_PORT);
+            FirebaseAuth.getInstance().useEmulator(BuildConfig.FIREBASE_EMULATOR_HOST, AUTH_EMULATOR_PORT);
+        }
+
+        // Keeps map tiles around disasters cached for when the network drops
+        TilePrefetchWorker.schedule(this);
+    }
+}
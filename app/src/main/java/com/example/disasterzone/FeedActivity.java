@@ -18,7 +18,17 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.disasterzone.adapter.FeedAdapter;
+import com.example.disasterzone.adapter.PostModelBuilder;
+import com.example.disasterzone.adapter.PostViewModel;
+import com.example.disasterzone.adapter.SortedPostList;
+import com.example.disasterzone.data.FeedPager;
+import com.example.disasterzone.data.OfflineStore;
+import com.example.disasterzone.data.ReportOutbox;
 import com.example.disasterzone.model.Post;
+import com.example.disasterzone.util.DisasterExpiry;
+import com.example.disasterzone.util.GeoHashBackfill;
+import com.example.disasterzone.util.LegacyLikesMigration;
+import com.example.disasterzone.util.PostImageMigration;
 import com.google.android.gms.location.FusedLocationProviderClient;
 import com.google.android.gms.location.LocationServices;
 import com.google.firebase.auth.FirebaseAuth;
@@ -26,20 +36,34 @@ import com.google.firebase.database.DataSnapshot;
 import com.google.firebase.database.DatabaseError;
 import com.google.firebase.database.DatabaseReference;
 import com.google.firebase.database.FirebaseDatabase;
-import com.google.firebase.database.ValueEventListener;
 import com.journeyapps.barcodescanner.ScanContract;
 import com.journeyapps.barcodescanner.ScanOptions;
 import com.journeyapps.barcodescanner.CaptureActivity;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 public class FeedActivity extends AppCompatActivity {
 
     private RecyclerView recyclerView;
     private FeedAdapter feedAdapter;
-    private List<Post> postList;
+    private List<PostViewModel> postList;
+    private SortedPostList sortedPosts;
+    private final PostModelBuilder modelBuilder = new PostModelBuilder();
     private DatabaseReference postsRef;
+    private FeedPager feedPager;
+    private int prefetchDistance;
+    private OfflineStore offlineStore;
+    // Posts the server has delivered since the last reload; the rest came from the local store
+    private final Set<String> confirmedIds = new HashSet<>();
+    // Own reports still waiting in the outbox, shown until the server has them
+    private final ReportOutbox.Listener outboxListener = this::showPendingReports;
+    private List<Post> pendingReports = new ArrayList<>();
+    private Set<String> failedReports = new HashSet<>();
+    private final Set<String> pendingIds = new HashSet<>();
+    private boolean reportedFullyDrawn = false;
     private FusedLocationProviderClient fusedLocationClient;
 
     // For periodic location updates
@@ -89,8 +113,20 @@ public class FeedActivity extends AppCompatActivity {
         postList = new ArrayList<>();
         feedAdapter = new FeedAdapter(this, postList);
         recyclerView.setAdapter(feedAdapter);
+        sortedPosts = new SortedPostList(postList, feedAdapter);
+        setupPaging();
 
+        offlineStore = OfflineStore.get(this);
         loadPosts();
+        showStoredPosts();
+        ReportOutbox.get(this).addListener(outboxListener);
+
+        // Moves inline images of old posts out of "posts" (no-op once done)
+        PostImageMigration.runIfNeeded(FirebaseDatabase.getInstance().getReference());
+        // Adds the geohash the map's area queries need to older posts (no-op once done)
+        GeoHashBackfill.runIfNeeded(FirebaseDatabase.getInstance().getReference());
+        // Moves likes stored under posts/{postId}/likes by older versions to likes/{postId}
+        LegacyLikesMigration.runIfNeeded(FirebaseDatabase.getInstance().getReference());
 
         // Fixed: Using View instead of ImageView for FrameLayout compatibility
         setupButton(R.id.btnNavNotif, NotificationActivity.class);
@@ -176,43 +212,145 @@ public class FeedActivity extends AppCompatActivity {
     }
 
     private void loadPosts() {
-        postsRef.orderByChild("timestamp").addValueEventListener(new ValueEventListener() {
+        // Reload: restart from the newest page with an empty list
+        sortedPosts.clear();
+        confirmedIds.clear();
+        feedPager.start();
+        showPendingReports(pendingReports, failedReports);
+    }
+
+    private void showPendingReports(List<Post> pending, Set<String> failed) {
+        pendingReports = pending;
+        failedReports = failed;
+        ReportOutbox outbox = ReportOutbox.get(this);
+        Set<String> stillPending = new HashSet<>();
+        for (Post post : pending) {
+            stillPending.add(post.postId);
+            modelBuilder.buildPending(post, outbox.thumbFile(post.postId), failed.contains(post.postId), model -> {
+                // The uploaded post may have arrived while this was being built
+                if (!confirmedIds.contains(model.postId)) sortedPosts.upsert(model);
+            });
+        }
+        // Reports that left the outbox either arrived from the server or were dropped
+        for (String postId : pendingIds) {
+            if (stillPending.contains(postId) || confirmedIds.contains(postId)) continue;
+            modelBuilder.afterPending(() -> {
+                if (!confirmedIds.contains(postId)) sortedPosts.remove(postId);
+            });
+        }
+        pendingIds.clear();
+        pendingIds.addAll(stillPending);
+    }
+
+    // Cold start: show the last known feed right away, the pager then corrects it
+    private void showStoredPosts() {
+        offlineStore.loadPosts(posts -> {
+            if (isDestroyed()) return;
+            for (Post post : posts) {
+                if (confirmedIds.contains(post.postId) || DisasterExpiry.isExpired(post)) continue;
+                modelBuilder.build(post, model -> {
+                    // The server may have answered while this was being built
+                    if (!confirmedIds.contains(model.postId)) sortedPosts.upsert(model);
+                });
+            }
+            modelBuilder.afterPending(this::reportFirstRows);
+        });
+    }
+
+    // Stored posts inside a range the server has fully returned, but not in it, were deleted
+    private void dropStalePosts(boolean hasMore) {
+        long oldest = feedPager.oldestTimestamp();
+        for (PostViewModel post : new ArrayList<>(postList)) {
+            if (confirmedIds.contains(post.postId) || pendingIds.contains(post.postId)) continue;
+            if (!hasMore || post.timestamp >= oldest) {
+                sortedPosts.remove(post.postId);
+                offlineStore.removePost(post.postId);
+            }
+        }
+    }
+
+    // Marks the end of startup for startup benchmarks (time to full display)
+    private void reportFirstRows() {
+        if (reportedFullyDrawn || sortedPosts.isEmpty()) return;
+        reportedFullyDrawn = true;
+        recyclerView.post(this::reportFullyDrawn);
+    }
+
+    private void setupPaging() {
+        int pageSize = getResources().getInteger(R.integer.feed_page_size);
+        prefetchDistance = getResources().getInteger(R.integer.feed_prefetch_distance);
+
+        feedPager = new FeedPager(postsRef, pageSize, new FeedPager.Listener() {
             @Override
-            public void onDataChange(@NonNull DataSnapshot snapshot) {
-                postList.clear();
-                for (DataSnapshot ds : snapshot.getChildren()) {
-                    try {
-                        Post post = ds.getValue(Post.class);
-                        if (post != null) {
-                            // Check if post is inactive and older than 24 hours
-                            if (!post.isActive) {
-                                long inactiveDuration = System.currentTimeMillis() - post.endedTimestamp;
-                                long oneDayInMillis = 24 * 60 * 60 * 1000;
-
-                                // Skip if inactive for more than 24 hours
-                                if (inactiveDuration > oneDayInMillis) {
-                                    continue;
-                                }
-                            }
-                            // Add to beginning for reverse chronological order
-                            postList.add(0, post);
-                        }
-                    } catch (Exception e) {
-                        e.printStackTrace();
-                    }
-                }
-                feedAdapter.notifyDataSetChanged();
+            public void onPostChanged(@NonNull DataSnapshot snapshot) {
+                applyPost(snapshot);
+            }
 
-                // Show message if no posts
-                if (postList.isEmpty()) {
-                    Toast.makeText(FeedActivity.this, "No disaster reports available", Toast.LENGTH_SHORT).show();
-                }
+            @Override
+            public void onPostRemoved(@NonNull String postId) {
+                modelBuilder.afterPending(() -> sortedPosts.remove(postId));
+                offlineStore.removePost(postId);
             }
+
             @Override
-            public void onCancelled(@NonNull DatabaseError error) {
+            public void onPageLoaded(int count, boolean hasMore) {
+                // Wait for the page's rows to be built before looking at the list
+                modelBuilder.afterPending(() -> {
+                    dropStalePosts(hasMore);
+                    reportFirstRows();
+                    // Show message if no posts
+                    if (sortedPosts.isEmpty() && !hasMore) {
+                        Toast.makeText(FeedActivity.this, "No disaster reports available", Toast.LENGTH_SHORT).show();
+                    }
+                    // A page of expired posts adds no rows, keep going while still near the end
+                    maybeLoadNextPage();
+                });
+            }
+
+            @Override
+            public void onError(@NonNull DatabaseError error) {
                 Toast.makeText(FeedActivity.this, "Failed to load posts: " + error.getMessage(), Toast.LENGTH_SHORT).show();
             }
         });
+
+        recyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView rv, int dx, int dy) {
+                maybeLoadNextPage();
+            }
+        });
+    }
+
+    private void maybeLoadNextPage() {
+        LinearLayoutManager layoutManager = (LinearLayoutManager) recyclerView.getLayoutManager();
+        if (layoutManager == null || feedPager.isLoading() || !feedPager.hasMore()) return;
+
+        int lastVisible = layoutManager.findLastVisibleItemPosition();
+        if (lastVisible >= feedAdapter.getItemCount() - 1 - prefetchDistance) {
+            feedPager.loadNextPage();
+        }
+    }
+
+    private void applyPost(DataSnapshot snapshot) {
+        try {
+            Post post = snapshot.getValue(Post.class);
+            if (post == null) return;
+            if (post.postId == null) post.postId = snapshot.getKey();
+            confirmedIds.add(post.postId);
+
+            // Skip if inactive for more than 24 hours
+            if (DisasterExpiry.isExpired(post)) {
+                String postId = post.postId;
+                modelBuilder.afterPending(() -> sortedPosts.remove(postId));
+                offlineStore.removePost(postId);
+                return;
+            }
+            // Row text is formatted off the main thread, then inserted in arrival order
+            modelBuilder.build(post, sortedPosts::upsert);
+            offlineStore.savePost(post);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
     }
 
     @Override
@@ -237,5 +375,10 @@ public class FeedActivity extends AppCompatActivity {
         if (locationUpdateHandler != null && locationUpdateRunnable != null) {
             locationUpdateHandler.removeCallbacks(locationUpdateRunnable);
         }
+        feedPager.stop();
+        ReportOutbox.get(this).removeListener(outboxListener);
+        modelBuilder.shutdown();
+        // Recycles all rows, which drops their like listeners
+        recyclerView.setAdapter(null);
     }
 }
\ No newline at end of file
@@ -2,60 +2,123 @@ package com.example.disasterzone;
 
 import android.Manifest;
 import android.content.pm.PackageManager;
+import android.graphics.drawable.Drawable;
 import android.location.Location;
 import android.os.Bundle;
 import android.os.Handler;
 import android.view.View;
-import android.widget.AdapterView;
-import android.widget.ArrayAdapter;
+import android.text.Editable;
+import android.text.TextWatcher;
+import android.view.inputmethod.InputMethodManager;
 import android.widget.Button;
-import android.widget.Spinner;
+import android.widget.EditText;
 import android.widget.TextView;
 import android.widget.Toast;
 
+import androidx.activity.OnBackPressedCallback;
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.core.app.ActivityCompat;
 import androidx.core.content.ContextCompat;
-
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.request.target.CustomTarget;
+import com.bumptech.glide.request.transition.Transition;
+import com.example.disasterzone.adapter.DisasterPickerAdapter;
+import com.example.disasterzone.adapter.DisasterRanker;
+import com.example.disasterzone.data.OfflineStore;
+import com.example.disasterzone.map.ClusterManager;
+import com.example.disasterzone.map.ClusterOverlay;
+import com.example.disasterzone.map.GeoCellLoader;
+import com.example.disasterzone.map.GridClusterer;
+import com.example.disasterzone.map.HeatmapManager;
+import com.example.disasterzone.map.HeatmapOverlay;
+import com.example.disasterzone.map.MapTiles;
+import com.example.disasterzone.map.SpatialIndex;
+import com.example.disasterzone.map.ZoneOverlay;
 import com.example.disasterzone.model.Post;
+import com.example.disasterzone.util.DisasterExpiry;
+import com.example.disasterzone.util.GeoHash;
+import com.example.disasterzone.util.GeoUtil;
+import com.example.disasterzone.util.ImageUtil;
+import com.example.disasterzone.util.LikeCounter;
+import com.example.disasterzone.util.PostImage;
+import com.example.disasterzone.util.SweepLease;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.database.DataSnapshot;
 import com.google.firebase.database.DatabaseError;
 import com.google.firebase.database.DatabaseReference;
 import com.google.firebase.database.FirebaseDatabase;
-import com.google.firebase.database.ValueEventListener;
 
-import org.osmdroid.config.Configuration;
+import org.osmdroid.events.MapListener;
+import org.osmdroid.events.ScrollEvent;
+import org.osmdroid.events.ZoomEvent;
+import org.osmdroid.util.BoundingBox;
 import org.osmdroid.util.GeoPoint;
 import org.osmdroid.views.MapView;
+import org.osmdroid.views.overlay.FolderOverlay;
 import org.osmdroid.views.overlay.Marker;
-import org.osmdroid.views.overlay.Polygon;
 import org.osmdroid.views.overlay.mylocation.GpsMyLocationProvider;
+import org.osmdroid.views.overlay.mylocation.IMyLocationProvider;
 import org.osmdroid.views.overlay.mylocation.MyLocationNewOverlay;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 public class MapActivity extends AppCompatActivity {
 
+    private static final double RERANK_DISTANCE_KM = 0.05;
+    private static final long SWEEP_INTERVAL_MS = 60 * 60 * 1000;
+    private static final long SWEEP_LEASE_MS = 30 * 60 * 1000;
+
     private MapView mapView;
     private DatabaseReference postsRef;
     private MyLocationNewOverlay myLocationOverlay;
     private Button btnEndDisaster;
-    private Spinner spinnerDisasters;
     private TextView tvDistanceInfo;
 
-    // Store disaster data
+    // Store disaster data, keyed by postId
     private Map<String, Post> disasterMap = new HashMap<>();
-    private List<String> disasterList = new ArrayList<>();
-    private ArrayAdapter<String> disasterAdapter;
 
-    // Store overlays
+    // Searchable picker, ordered nearest first off the main thread
+    private TextView tvDisasterPicker;
+    private View layoutDisasterPicker;
+    private EditText etDisasterSearch;
+    private TextView tvClearSelection;
+    private DisasterPickerAdapter pickerAdapter;
+    private DisasterRanker ranker;
+    private final Map<String, DisasterRanker.Entry> pickerEntries = new HashMap<>();
+    private String selectedId;
+    // Where the picker was last ordered from; small moves do not re-sort it
+    private GeoPoint rankedLocation;
+
+    private GeoCellLoader cellLoader;
+    private final Set<String> confirmedIds = new HashSet<>();
+
+    // Store overlays, zones drawn below markers
     private Map<String, Marker> markerMap = new HashMap<>();
-    private Map<String, Polygon> circleMap = new HashMap<>();
+    private ZoneOverlay zoneOverlay;
+    private final FolderOverlay markerFolder = new FolderOverlay();
+
+    // Nearby disasters collapse into count badges at low zoom
+    private ClusterOverlay clusterOverlay;
+    private ClusterManager clusterManager;
+    private Set<String> clusteredIds = new HashSet<>();
+
+    // Report density, drawn instead of the zones while switched on
+    private Button btnHeatmap;
+    private HeatmapOverlay heatmapOverlay;
+    private HeatmapManager heatmapManager;
+
+    // Active disasters only, answers the proximity questions without scanning every post
+    private final SpatialIndex activeIndex = new SpatialIndex();
 
     // Current user location
     private GeoPoint userLocation = null;
@@ -63,20 +126,38 @@ public class MapActivity extends AppCompatActivity {
 
     // Handler for automatic deletion
     private Handler deletionHandler = new Handler();
+    private SweepLease sweepLease;
+    private SweepLease reconcileLease;
+
+    private OfflineStore offlineStore;
+
+    // Back closes the picker first; enabled only while it is open, so predictive back
+    // still animates out of the activity otherwise
+    private final OnBackPressedCallback pickerBackCallback = new OnBackPressedCallback(false) {
+        @Override
+        public void handleOnBackPressed() {
+            showPicker(false);
+        }
+    };
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
-        Configuration.getInstance().setUserAgentValue(getPackageName());
+        MapTiles.configure(this);
         setContentView(R.layout.activity_map);
 
         mapView = findViewById(R.id.mapView);
         btnEndDisaster = findViewById(R.id.btnEndDisaster);
-        spinnerDisasters = findViewById(R.id.spinnerDisasters);
+        tvDisasterPicker = findViewById(R.id.tvDisasterPicker);
+        layoutDisasterPicker = findViewById(R.id.layoutDisasterPicker);
+        etDisasterSearch = findViewById(R.id.etDisasterSearch);
+        tvClearSelection = findViewById(R.id.tvClearSelection);
         tvDistanceInfo = findViewById(R.id.tvDistanceInfo);
 
         currentUserId = FirebaseAuth.getInstance().getCurrentUser().getUid();
 
+        // Same source as TilePrefetchWorker, so prefetched tiles show offline
+        mapView.setTileSource(MapTiles.source());
         mapView.setMultiTouchControls(true);
         mapView.getController().setZoom(14.0);
 
@@ -86,67 +167,106 @@ public class MapActivity extends AppCompatActivity {
         postsRef = FirebaseDatabase.getInstance().getReference("posts");
 
         findViewById(R.id.btnBack).setOnClickListener(v -> finish());
+        getOnBackPressedDispatcher().addCallback(this, pickerBackCallback);
 
-        setupDisasterSpinner();
+        setupDisasterPicker();
         setupEndDisasterButton();
 
+        zoneOverlay = new ZoneOverlay(getResources().getDisplayMetrics().density);
+        mapView.getOverlays().add(zoneOverlay);
+        setupHeatmap();
+        mapView.getOverlays().add(markerFolder);
+        setupClustering();
+
         checkPermissions();
         setupUserLocation();
+        offlineStore = OfflineStore.get(this);
+        showStoredDisasters();
         loadDisasterMarkers();
         startAutoDeletionCheck();
     }
 
-    private void setupDisasterSpinner() {
-        disasterAdapter = new ArrayAdapter<>(this,
-                android.R.layout.simple_spinner_item,
-                disasterList);
-        disasterAdapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
-        spinnerDisasters.setAdapter(disasterAdapter);
+    private void setupDisasterPicker() {
+        pickerAdapter = new DisasterPickerAdapter(this::selectDisaster);
+        RecyclerView rvDisasters = findViewById(R.id.rvDisasters);
+        rvDisasters.setLayoutManager(new LinearLayoutManager(this));
+        rvDisasters.setAdapter(pickerAdapter);
+
+        ranker = new DisasterRanker(
+                () -> new ArrayList<>(pickerEntries.values()),
+                (rows, diff) -> {
+                    pickerAdapter.submit(rows, diff);
+                    // Keep the nearest disaster in view after a re-sort
+                    if (!rvDisasters.canScrollVertically(-1)) rvDisasters.scrollToPosition(0);
+                });
 
-        spinnerDisasters.setOnItemSelectedListener(new AdapterView.OnItemSelectedListener() {
+        tvDisasterPicker.setOnClickListener(v -> showPicker(layoutDisasterPicker.getVisibility() != View.VISIBLE));
+        tvClearSelection.setOnClickListener(v -> {
+            clearSelection();
+            showPicker(false);
+        });
+        etDisasterSearch.addTextChangedListener(new TextWatcher() {
             @Override
-            public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
-                if (position > 0) {
-                    String selectedDisasterKey = disasterList.get(position);
-                    Post selectedPost = disasterMap.get(selectedDisasterKey);
-
-                    if (selectedPost != null) {
-                        // Center map on selected disaster
-                        GeoPoint point = new GeoPoint(selectedPost.latitude, selectedPost.longitude);
-                        mapView.getController().animateTo(point);
-                        mapView.getController().setZoom(15.0);
-
-                        // Update distance info
-                        updateDistanceInfo(selectedPost);
-
-                        // Show/hide end button based on distance and status
-                        checkUserProximity(selectedPost);
-                    }
-                } else {
-                    tvDistanceInfo.setVisibility(View.GONE);
-                    btnEndDisaster.setVisibility(View.GONE);
-                }
-            }
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {}
 
             @Override
-            public void onNothingSelected(AdapterView<?> parent) {
-                tvDistanceInfo.setVisibility(View.GONE);
-                btnEndDisaster.setVisibility(View.GONE);
+            public void onTextChanged(CharSequence s, int start, int before, int count) {
+                ranker.setQuery(s);
             }
+
+            @Override
+            public void afterTextChanged(Editable s) {}
         });
     }
 
+    private void showPicker(boolean show) {
+        layoutDisasterPicker.setVisibility(show ? View.VISIBLE : View.GONE);
+        pickerBackCallback.setEnabled(show);
+        tvClearSelection.setVisibility(selectedId != null ? View.VISIBLE : View.GONE);
+        if (!show) {
+            InputMethodManager imm = (InputMethodManager) getSystemService(INPUT_METHOD_SERVICE);
+            imm.hideSoftInputFromWindow(etDisasterSearch.getWindowToken(), 0);
+        }
+    }
+
+    private void selectDisaster(String postId) {
+        Post selectedPost = disasterMap.get(postId);
+        if (selectedPost == null) return;
+
+        selectedId = postId;
+        pickerAdapter.setSelectedId(postId);
+        tvDisasterPicker.setText(pickerText(selectedPost));
+        showPicker(false);
+
+        // Center map on selected disaster
+        GeoPoint point = new GeoPoint(selectedPost.latitude, selectedPost.longitude);
+        // Close enough that the disaster is not hidden in a cluster
+        mapView.getController().animateTo(point);
+        mapView.getController().setZoom(GridClusterer.MAX_CLUSTER_ZOOM);
+
+        // Update distance info
+        updateDistanceInfo(selectedPost);
+
+        // Show/hide end button based on distance and status
+        checkUserProximity(selectedPost);
+    }
+
+    private void clearSelection() {
+        selectedId = null;
+        pickerAdapter.setSelectedId(null);
+        tvDisasterPicker.setText("Select Disaster");
+        btnEndDisaster.setVisibility(View.GONE);
+        showNearbySummary();
+    }
+
     private void setupEndDisasterButton() {
         btnEndDisaster.setOnClickListener(v -> {
-            int selectedPosition = spinnerDisasters.getSelectedItemPosition();
-
-            if (selectedPosition == 0) {
+            if (selectedId == null) {
                 Toast.makeText(this, "Please select a disaster first", Toast.LENGTH_SHORT).show();
                 return;
             }
 
-            String selectedDisasterKey = disasterList.get(selectedPosition);
-            Post selectedPost = disasterMap.get(selectedDisasterKey);
+            Post selectedPost = disasterMap.get(selectedId);
 
             if (selectedPost != null) {
                 // Check if already inactive
@@ -165,27 +285,25 @@ public class MapActivity extends AppCompatActivity {
                 new android.app.AlertDialog.Builder(this)
                         .setTitle("Confirm End Disaster")
                         .setMessage("Are you sure this disaster has ended? It will turn grey and be removed in 24 hours.")
-                        .setPositiveButton("Yes", (dialog, which) -> markDisasterAsInactive(selectedPost, selectedDisasterKey))
+                        .setPositiveButton("Yes", (dialog, which) -> markDisasterAsInactive(selectedPost))
                         .setNegativeButton("Cancel", null)
                         .show();
             }
         });
     }
 
-    private void markDisasterAsInactive(Post post, String disasterKey) {
+    private void markDisasterAsInactive(Post post) {
         // Mark disaster as inactive
         post.isActive = false;
         post.endedTimestamp = System.currentTimeMillis();
 
-        // Update in Firebase
-        postsRef.child(post.postId).setValue(post)
+        // Update only the status fields in Firebase
+        Map<String, Object> statusUpdate = new HashMap<>();
+        statusUpdate.put("isActive", false);
+        statusUpdate.put("endedTimestamp", post.endedTimestamp);
+        postsRef.child(post.postId).updateChildren(statusUpdate)
                 .addOnSuccessListener(aVoid -> {
-                    // Update map visualization
-                    updateDisasterVisualization(post);
-
-                    // Update spinner text to show it's inactive
-                    updateSpinnerItem(disasterKey, post);
-
+                    // The map and picker follow through the posts child listener
                     Toast.makeText(MapActivity.this,
                             "Disaster marked as inactive. It will be removed from the map in 24 hours.",
                             Toast.LENGTH_LONG).show();
@@ -194,8 +312,8 @@ public class MapActivity extends AppCompatActivity {
                     btnEndDisaster.setVisibility(View.GONE);
                     tvDistanceInfo.setVisibility(View.GONE);
 
-                    // Reset spinner to "Select Disaster"
-                    spinnerDisasters.setSelection(0);
+                    // Back to "Select Disaster"
+                    clearSelection();
                 })
                 .addOnFailureListener(e -> {
                     Toast.makeText(MapActivity.this,
@@ -211,8 +329,8 @@ public class MapActivity extends AppCompatActivity {
             return;
         }
 
-        GeoPoint disasterPoint = new GeoPoint(post.latitude, post.longitude);
-        double distance = calculateDistance(userLocation, disasterPoint);
+        double distance = GeoUtil.distanceKm(userLocation.getLatitude(), userLocation.getLongitude(),
+                post.latitude, post.longitude);
 
         String status = post.isActive ? "Active" : "Inactive";
         String color = post.isActive ? "#D32F2F" : "#757575";
@@ -257,90 +375,75 @@ public class MapActivity extends AppCompatActivity {
     private boolean isUserWithin1Km(Post post) {
         if (userLocation == null) return false;
 
-        GeoPoint disasterPoint = new GeoPoint(post.latitude, post.longitude);
-        double distance = calculateDistance(userLocation, disasterPoint);
+        double distance = GeoUtil.distanceKm(userLocation.getLatitude(), userLocation.getLongitude(),
+                post.latitude, post.longitude);
 
         return distance <= 1.0; // 1 km
     }
 
-    private double calculateDistance(GeoPoint point1, GeoPoint point2) {
-        // Haversine formula for distance calculation
-        double lat1 = Math.toRadians(point1.getLatitude());
-        double lon1 = Math.toRadians(point1.getLongitude());
-        double lat2 = Math.toRadians(point2.getLatitude());
-        double lon2 = Math.toRadians(point2.getLongitude());
-
-        double dLat = lat2 - lat1;
-        double dLon = lon2 - lon1;
-
-        double a = Math.sin(dLat/2) * Math.sin(dLat/2) +
-                Math.cos(lat1) * Math.cos(lat2) *
-                        Math.sin(dLon/2) * Math.sin(dLon/2);
-
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1-a));
-        double radius = 6371; // Earth's radius in kilometers
-
-        return radius * c;
-    }
-
-    private void updateDisasterVisualization(Post post) {
-        Marker marker = markerMap.get(post.postId);
-        Polygon circle = circleMap.get(post.postId);
-
-        if (marker != null) {
-            // Change marker appearance for inactive disasters
-            // You can customize this further
-            marker.setAlpha(0.5f); // Make it semi-transparent
+    // With nothing selected, tell the user how close the nearest active disaster is. The
+    // index only holds the cells loaded for the viewport, so the text says "on the map"
+    private void showNearbySummary() {
+        if (userLocation == null || activeIndex.size() == 0) {
+            tvDistanceInfo.setVisibility(View.GONE);
+            return;
         }
-
-        if (circle != null) {
-            // Change circle to grey
-            circle.setFillColor(0x30606060); // Semi-transparent grey
-            circle.setStrokeColor(0xFF606060); // Solid grey border
-            mapView.invalidate();
+        double lat = userLocation.getLatitude();
+        double lon = userLocation.getLongitude();
+        List<SpatialIndex.Hit> nearest = activeIndex.nearest(lat, lon, 1);
+        if (nearest.isEmpty()) {
+            tvDistanceInfo.setVisibility(View.GONE);
+            return;
         }
-    }
+        int within1Km = activeIndex.withinRadius(lat, lon, 1.0).size();
 
-    private void updateSpinnerItem(String key, Post post) {
-        int position = disasterList.indexOf(key);
-        if (position > 0) {
-            String newText = "[INACTIVE] " + post.username + " - " +
-                    (post.description.length() > 30 ?
-                            post.description.substring(0, 30) + "..." :
-                            post.description);
-            disasterList.set(position, newText);
-            disasterAdapter.notifyDataSetChanged();
-        }
+        String text = String.format("Nearest active disaster on the map: %.1f km", nearest.get(0).distanceKm);
+        if (within1Km > 0) text += "\n" + within1Km + " active on the map within 1 km of you";
+        tvDistanceInfo.setText(text);
+        tvDistanceInfo.setVisibility(View.VISIBLE);
     }
 
     private void setupUserLocation() {
-        myLocationOverlay = new MyLocationNewOverlay(new GpsMyLocationProvider(this), mapView);
+        myLocationOverlay = new MyLocationNewOverlay(new GpsMyLocationProvider(this), mapView) {
+            @Override
+            public void onLocationChanged(Location location, IMyLocationProvider source) {
+                super.onLocationChanged(location, source);
+                // Called on the provider's thread
+                if (location != null) {
+                    GeoPoint point = new GeoPoint(location);
+                    runOnUiThread(() -> onUserMoved(point));
+                }
+            }
+        };
         myLocationOverlay.enableMyLocation();
         myLocationOverlay.enableFollowLocation();
         myLocationOverlay.setDrawAccuracyEnabled(true);
 
-        // Listen for location updates
-        myLocationOverlay.runOnFirstFix(() -> {
-            runOnUiThread(() -> {
-                userLocation = myLocationOverlay.getMyLocation();
-                if (userLocation != null) {
-                    // Update distance info if a disaster is selected
-                    int selectedPosition = spinnerDisasters.getSelectedItemPosition();
-                    if (selectedPosition > 0) {
-                        String selectedKey = disasterList.get(selectedPosition);
-                        Post selectedPost = disasterMap.get(selectedKey);
-                        if (selectedPost != null) {
-                            updateDistanceInfo(selectedPost);
-                            checkUserProximity(selectedPost);
-                        }
-                    }
-                }
-            });
-        });
-
         mapView.getOverlays().add(myLocationOverlay);
     }
 
+    private void onUserMoved(GeoPoint location) {
+        userLocation = location;
+
+        // Re-order the picker once the user has moved far enough to change it
+        if (rankedLocation == null || GeoUtil.distanceKm(rankedLocation.getLatitude(), rankedLocation.getLongitude(),
+                location.getLatitude(), location.getLongitude()) > RERANK_DISTANCE_KM) {
+            rankedLocation = location;
+            ranker.setLocation(location.getLatitude(), location.getLongitude());
+            // Where TilePrefetchWorker caches tiles next time
+            MapTiles.saveLastLocation(this, location.getLatitude(), location.getLongitude());
+        }
+
+        // Update distance info if a disaster is selected
+        Post selectedPost = selectedId != null ? disasterMap.get(selectedId) : null;
+        if (selectedPost != null) {
+            updateDistanceInfo(selectedPost);
+            checkUserProximity(selectedPost);
+        } else {
+            showNearbySummary();
+        }
+    }
+
     private void checkPermissions() {
         if (ContextCompat.checkSelfPermission(this, Manifest.permission.ACCESS_FINE_LOCATION) != PackageManager.PERMISSION_GRANTED) {
             ActivityCompat.requestPermissions(this, new String[]{Manifest.permission.ACCESS_FINE_LOCATION}, 1);
@@ -365,168 +468,316 @@ public class MapActivity extends AppCompatActivity {
         }
     }
 
+    private void setupHeatmap() {
+        heatmapOverlay = new HeatmapOverlay();
+        mapView.getOverlays().add(heatmapOverlay);
+        heatmapManager = new HeatmapManager((bitmap, north, west, south, east) -> {
+            heatmapOverlay.setBitmap(bitmap, north, west, south, east);
+            mapView.invalidate();
+        });
+
+        btnHeatmap = findViewById(R.id.btnHeatmap);
+        btnHeatmap.setOnClickListener(v -> {
+            boolean show = !heatmapOverlay.isEnabled();
+            heatmapOverlay.setEnabled(show);
+            zoneOverlay.setEnabled(!show);
+            btnHeatmap.setText(show ? "Zones" : "Heatmap");
+            if (show) {
+                updateHeatmapViewport();
+            } else {
+                heatmapOverlay.clear();
+            }
+            heatmapManager.setEnabled(show);
+            mapView.invalidate();
+        });
+    }
+
+    private void updateHeatmapViewport() {
+        BoundingBox box = mapView.getBoundingBox();
+        heatmapManager.setViewport(box.getLatNorth(), box.getLonWest(), box.getLatSouth(), box.getLonEast(),
+                mapView.getZoomLevelDouble());
+    }
+
+    private void setupClustering() {
+        clusterOverlay = new ClusterOverlay(getResources().getDisplayMetrics().density);
+        mapView.getOverlays().add(clusterOverlay);
+
+        clusterManager = new ClusterManager(this::clusterItems, this::applyClusters);
+        clusterManager.setZoom(mapView.getZoomLevelDouble());
+        mapView.addMapListener(new MapListener() {
+            @Override
+            public boolean onScroll(ScrollEvent event) {
+                if (cellLoader != null) cellLoader.showArea(mapView.getBoundingBox());
+                if (heatmapOverlay.isEnabled()) updateHeatmapViewport();
+                return false;
+            }
+
+            @Override
+            public boolean onZoom(ZoomEvent event) {
+                clusterManager.onZoomChanged(event.getZoomLevel());
+                if (cellLoader != null) cellLoader.showArea(mapView.getBoundingBox());
+                if (heatmapOverlay.isEnabled()) updateHeatmapViewport();
+                return false;
+            }
+        });
+    }
+
+    private List<GridClusterer.Item> clusterItems() {
+        List<GridClusterer.Item> items = new ArrayList<>(disasterMap.size());
+        for (Post post : disasterMap.values()) {
+            items.add(new GridClusterer.Item(post.postId, post.latitude, post.longitude, post.isActive));
+        }
+        return items;
+    }
+
+    // Hides the markers and zones of clustered disasters, the badges stand in for them
+    private void applyClusters(List<GridClusterer.Cluster> clusters, Set<String> ids) {
+        clusteredIds = ids;
+        for (Map.Entry<String, Marker> entry : markerMap.entrySet()) {
+            boolean visible = !ids.contains(entry.getKey());
+            Marker marker = entry.getValue();
+            if (!visible && marker.isInfoWindowShown()) marker.closeInfoWindow();
+            marker.setEnabled(visible);
+        }
+        zoneOverlay.setHidden(ids);
+        clusterOverlay.setClusters(clusters);
+        mapView.invalidate();
+    }
+
+    // Draws the last known disasters until their cells have loaded
+    private void showStoredDisasters() {
+        offlineStore.loadPosts(posts -> {
+            if (isDestroyed()) return;
+            for (Post post : posts) {
+                if (!confirmedIds.contains(post.postId)) applyDisaster(post);
+            }
+            mapView.invalidate();
+        });
+    }
+
     private void loadDisasterMarkers() {
-        postsRef.addValueEventListener(new ValueEventListener() {
+        // Only the geohash cells around the visible area are queried
+        cellLoader = new GeoCellLoader(postsRef, new GeoCellLoader.Listener() {
             @Override
-            public void onDataChange(@NonNull DataSnapshot snapshot) {
-                // Clear previous data but keep active overlays
-                disasterMap.clear();
-                disasterList.clear();
-                markerMap.clear();
-                circleMap.clear();
-
-                // Clear overlays but keep the MyLocationOverlay
-                mapView.getOverlays().clear();
-                if (myLocationOverlay != null) {
-                    mapView.getOverlays().add(myLocationOverlay);
-                }
+            public void onPostChanged(@NonNull DataSnapshot snapshot) {
+                onPostSnapshot(snapshot);
+            }
+
+            @Override
+            public void onPostRemoved(@NonNull String postId) {
+                removeDisaster(postId);
+                confirmedIds.remove(postId);
+                offlineStore.removePost(postId);
+                mapView.invalidate();
+            }
 
-                // Add "Select Disaster" as first item
-                disasterList.add("Select Disaster");
-
-                for (DataSnapshot ds : snapshot.getChildren()) {
-                    Post post = ds.getValue(Post.class);
-                    if (post != null && post.latitude != 0 && post.longitude != 0) {
-                        // Skip if inactive for more than 24 hours
-                        if (!post.isActive &&
-                                System.currentTimeMillis() - post.endedTimestamp > 24 * 60 * 60 * 1000) {
-                            continue; // Skip loading expired inactive disasters
-                        }
-
-                        GeoPoint point = new GeoPoint(post.latitude, post.longitude);
-
-                        // Create and store marker
-                        Marker marker = createMarker(point, post);
-                        markerMap.put(post.postId, marker);
-                        mapView.getOverlays().add(marker);
-
-                        // Create and store circle
-                        Polygon circle = createDisasterZone(point, post.isActive);
-                        circleMap.put(post.postId, circle);
-                        mapView.getOverlays().add(circle);
-
-                        // Store for spinner
-                        String prefix = post.isActive ? "" : "[INACTIVE] ";
-                        String displayText = prefix + post.username + " - " +
-                                (post.description.length() > 30 ?
-                                        post.description.substring(0, 30) + "..." :
-                                        post.description);
-                        disasterList.add(displayText);
-                        disasterMap.put(displayText, post);
+            @Override
+            public void onCellLoaded(@NonNull String cell) {
+                // Stored posts in this cell that the server did not return were deleted
+                for (Post post : new ArrayList<>(disasterMap.values())) {
+                    if (!confirmedIds.contains(post.postId) && geohashOf(post).startsWith(cell)) {
+                        removeDisaster(post.postId);
+                        offlineStore.removePost(post.postId);
                     }
                 }
+                mapView.invalidate();
+            }
 
-                // Update UI
-                if (disasterList.size() > 1) {
-                    spinnerDisasters.setVisibility(View.VISIBLE);
-                    disasterAdapter.notifyDataSetChanged();
-
-                    // Show/hide distance info and button based on selection
-                    int selectedPosition = spinnerDisasters.getSelectedItemPosition();
-                    if (selectedPosition > 0) {
-                        String selectedKey = disasterList.get(selectedPosition);
-                        Post selectedPost = disasterMap.get(selectedKey);
-                        if (selectedPost != null) {
-                            updateDistanceInfo(selectedPost);
-                            checkUserProximity(selectedPost);
-                        }
+            @Override
+            public void onCellEvicted(@NonNull String cell) {
+                // Far away and no longer watched, drop what no other loaded cell covers
+                for (Post post : new ArrayList<>(disasterMap.values())) {
+                    String geohash = geohashOf(post);
+                    if (geohash.startsWith(cell) && !cellLoader.isCovered(geohash)) {
+                        removeDisaster(post.postId);
+                        confirmedIds.remove(post.postId);
                     }
-                } else {
-                    spinnerDisasters.setVisibility(View.GONE);
-                    btnEndDisaster.setVisibility(View.GONE);
-                    tvDistanceInfo.setVisibility(View.GONE);
                 }
-
                 mapView.invalidate();
             }
 
             @Override
-            public void onCancelled(@NonNull DatabaseError error) {
+            public void onError(@NonNull DatabaseError error) {
                 Toast.makeText(MapActivity.this, "Failed to load disasters: " + error.getMessage(), Toast.LENGTH_SHORT).show();
             }
         });
+
+        // The bounding box is only known once the map has been laid out
+        mapView.addOnFirstLayoutListener((v, left, top, right, bottom) ->
+                cellLoader.showArea(mapView.getBoundingBox()));
     }
 
-    private Marker createMarker(GeoPoint point, Post post) {
-        Marker marker = new Marker(mapView);
-        marker.setPosition(point);
+    private static String geohashOf(Post post) {
+        return post.geohash != null ? post.geohash
+                : GeoHash.encode(post.latitude, post.longitude, GeoHash.STORED_PRECISION);
+    }
 
-        // Set title with status
-        String status = post.isActive ? "Active" : "Inactive";
-        marker.setTitle(post.username + ": " + post.description + " (" + status + ")");
-        marker.setAnchor(Marker.ANCHOR_CENTER, Marker.ANCHOR_BOTTOM);
+    private void onPostSnapshot(DataSnapshot snapshot) {
+        Post post = snapshot.getValue(Post.class);
+        if (post == null) return;
+        if (post.postId == null) post.postId = snapshot.getKey();
+        confirmedIds.add(post.postId);
+        offlineStore.savePost(post);
+        applyDisaster(post);
+        mapView.invalidate();
+    }
 
-        // Visual difference for inactive markers
-        if (!post.isActive) {
-            marker.setAlpha(0.5f); // Semi-transparent
+    // Adds the overlays of a new post or updates the existing ones in place
+    private void applyDisaster(Post post) {
+        if (DisasterExpiry.isExpired(post) || post.latitude == 0 || post.longitude == 0) {
+            removeDisaster(post.postId);
+            return;
         }
 
-        return marker;
+        disasterMap.put(post.postId, post);
+        if (post.isActive) {
+            activeIndex.put(post.postId, post.latitude, post.longitude);
+        } else {
+            activeIndex.remove(post.postId);
+        }
+        GeoPoint point = new GeoPoint(post.latitude, post.longitude);
+        Marker marker = markerMap.get(post.postId);
+        zoneOverlay.put(post.postId, post.latitude, post.longitude, post.isActive);
+        heatmapManager.put(post.postId, post.latitude, post.longitude, post.timestamp);
+
+        if (marker == null) {
+            marker = createMarker(point, post);
+            marker.setEnabled(!clusteredIds.contains(post.postId));
+            markerMap.put(post.postId, marker);
+            markerFolder.add(marker);
+        } else {
+            updateMarker(marker, point, post);
+        }
+        pickerEntries.put(post.postId, new DisasterRanker.Entry(post.postId, post.username + " - " + post.description,
+                post.isActive, post.latitude, post.longitude, post.timestamp));
+        refreshPicker(post.postId);
+        clusterManager.requestUpdate();
     }
 
-    private Polygon createDisasterZone(GeoPoint centerPoint, boolean isActive) {
-        Polygon circle = new Polygon();
+    private void removeDisaster(String postId) {
+        if (postId == null || disasterMap.remove(postId) == null) return;
+        activeIndex.remove(postId);
+
+        Marker marker = markerMap.remove(postId);
+        if (marker != null) {
+            marker.closeInfoWindow();
+            markerFolder.remove(marker);
+        }
+        zoneOverlay.remove(postId);
+        heatmapManager.remove(postId);
+
+        pickerEntries.remove(postId);
+        if (postId.equals(selectedId)) clearSelection();
+        refreshPicker(null);
+        clusterManager.requestUpdate();
+    }
 
-        if (isActive) {
-            circle.setFillColor(0x30D32F2F); // Semi-transparent red
-            circle.setStrokeColor(0xFFD32F2F); // Solid red border
+    private void refreshPicker(@Nullable String changedPostId) {
+        ranker.requestUpdate();
+        if (!disasterMap.isEmpty()) {
+            tvDisasterPicker.setVisibility(View.VISIBLE);
+
+            // Refresh distance info and button if the selected disaster changed
+            if (selectedId != null && selectedId.equals(changedPostId)) {
+                Post selectedPost = disasterMap.get(selectedId);
+                if (selectedPost != null) {
+                    tvDisasterPicker.setText(pickerText(selectedPost));
+                    updateDistanceInfo(selectedPost);
+                    checkUserProximity(selectedPost);
+                }
+            } else if (selectedId == null) {
+                showNearbySummary();
+            }
         } else {
-            circle.setFillColor(0x30606060); // Semi-transparent grey
-            circle.setStrokeColor(0xFF606060); // Solid grey border
+            tvDisasterPicker.setVisibility(View.GONE);
+            showPicker(false);
+            btnEndDisaster.setVisibility(View.GONE);
+            tvDistanceInfo.setVisibility(View.GONE);
         }
+    }
+
+    private String pickerText(Post post) {
+        String prefix = post.isActive ? "" : "[INACTIVE] ";
+        return prefix + post.username + " - " + post.description;
+    }
+
+    private Marker createMarker(GeoPoint point, Post post) {
+        Marker marker = new Marker(mapView);
+        marker.setAnchor(Marker.ANCHOR_CENTER, Marker.ANCHOR_BOTTOM);
+        updateMarker(marker, point, post);
 
-        circle.setStrokeWidth(2.0f);
-        List<GeoPoint> circlePoints = Polygon.pointsAsCircle(centerPoint, 1000.0);
-        circle.setPoints(circlePoints);
+        // Popup shows the small thumbnail, fetched only when the marker is tapped
+        marker.setOnMarkerClickListener((clicked, map) -> {
+            showMarkerPopup(clicked, (Post) clicked.getRelatedObject());
+            return true;
+        });
 
-        return circle;
+        return marker;
     }
 
-    private void startAutoDeletionCheck() {
-        // Check every hour for inactive disasters older than 24 hours
-        deletionHandler.postDelayed(new Runnable() {
-            @Override
-            public void run() {
-                checkAndDeleteOldDisasters();
-                deletionHandler.postDelayed(this, 60 * 60 * 1000); // Check every hour
-            }
-        }, 60 * 60 * 1000); // Start after 1 hour
+    private void updateMarker(Marker marker, GeoPoint point, Post post) {
+        marker.setPosition(point);
+        marker.setRelatedObject(post);
+
+        // Set title with status
+        String status = post.isActive ? "Active" : "Inactive";
+        marker.setTitle(post.username + ": " + post.description + " (" + status + ")");
+
+        // Visual difference for inactive markers
+        marker.setAlpha(post.isActive ? 1.0f : 0.5f);
+
+        // An open bubble picks up the new title
+        if (marker.isInfoWindowShown()) marker.showInfoWindow();
     }
 
-    private void checkAndDeleteOldDisasters() {
-        postsRef.addListenerForSingleValueEvent(new ValueEventListener() {
-            @Override
-            public void onDataChange(@NonNull DataSnapshot snapshot) {
-                for (DataSnapshot ds : snapshot.getChildren()) {
-                    Post post = ds.getValue(Post.class);
-                    if (post != null && !post.isActive) {
-                        long inactiveDuration = System.currentTimeMillis() - post.endedTimestamp;
-                        long oneDayInMillis = 24 * 60 * 60 * 1000;
-
-                        if (inactiveDuration > oneDayInMillis) {
-                            // Delete from Firebase (only from map, not from feed)
-                            postsRef.child(post.postId).removeValue()
-                                    .addOnSuccessListener(aVoid -> {
-                                        // Remove from local maps
-                                        markerMap.remove(post.postId);
-                                        circleMap.remove(post.postId);
-                                    });
-                        }
+    private void showMarkerPopup(Marker marker, Post post) {
+        marker.showInfoWindow();
+        if (marker.getImage() != null || !PostImage.hasImage(post)) return;
+
+        Glide.with(this)
+                .load(PostImage.thumbOf(post))
+                .into(new CustomTarget<Drawable>(ImageUtil.THUMB_WIDTH, ImageUtil.THUMB_WIDTH) {
+                    @Override
+                    public void onResourceReady(@NonNull Drawable resource, @Nullable Transition<? super Drawable> transition) {
+                        marker.setImage(resource);
+                        // Re-open so the bubble picks up the image
+                        if (marker.isInfoWindowShown()) marker.showInfoWindow();
                     }
-                }
-            }
 
+                    @Override
+                    public void onLoadCleared(@Nullable Drawable placeholder) {}
+                });
+    }
+
+    private void startAutoDeletionCheck() {
+        // Only the lease holder cleans up, once an hour across all clients
+        sweepLease = new SweepLease(postsRef.getRoot(), "expirySweep", SweepLease.clientId(this),
+                SWEEP_LEASE_MS, SWEEP_INTERVAL_MS);
+        // Like counters are repaired once a day, tracked in the lease record shared by all clients
+        reconcileLease = new SweepLease(postsRef.getRoot(), "likeReconcile", SweepLease.clientId(this),
+                SWEEP_LEASE_MS, LikeCounter.RECONCILE_INTERVAL_MS);
+        deletionHandler.post(new Runnable() {
             @Override
-            public void onCancelled(@NonNull DatabaseError error) {
-                // Handle error
+            public void run() {
+                sweepLease.runIfLeader(() -> DisasterExpiry.sweepInBackground(postsRef.getRoot()));
+                reconcileLease.runIfLeader(() -> LikeCounter.reconcileInBackground(postsRef.getRoot()));
+                // Renews the lease well before it runs out, or takes it over once it has
+                deletionHandler.postDelayed(this, SWEEP_LEASE_MS / 3);
             }
         });
     }
 
+
     @Override
     protected void onDestroy() {
         super.onDestroy();
         // Remove handler callbacks
         deletionHandler.removeCallbacksAndMessages(null);
+        if (sweepLease != null) sweepLease.release();
+        if (reconcileLease != null) reconcileLease.release();
+        if (cellLoader != null) cellLoader.stop();
+        clusterManager.shutdown();
+        ranker.shutdown();
+        heatmapManager.shutdown();
     }
 }
\ No newline at end of file
@@ -10,6 +10,7 @@ import androidx.appcompat.app.AppCompatActivity;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 import com.example.disasterzone.adapter.NotificationAdapter;
+import com.example.disasterzone.data.OfflineStore;
 import com.example.disasterzone.model.Notification;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.database.DataSnapshot;
@@ -30,6 +31,8 @@ public class NotificationActivity extends AppCompatActivity {
     // Changed from TextView to LinearLayout to match new XML
     private LinearLayout layoutEmptyState;
 
+    private boolean liveDataLoaded = false;
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -61,9 +64,19 @@ public class NotificationActivity extends AppCompatActivity {
         String uid = FirebaseAuth.getInstance().getCurrentUser().getUid();
         DatabaseReference notifRef = FirebaseDatabase.getInstance().getReference("notifications").child(uid);
 
+        // Last known alerts first (already newest first), replaced once the server answers
+        OfflineStore offlineStore = OfflineStore.get(this);
+        offlineStore.loadNotifications(uid, stored -> {
+            if (liveDataLoaded || isDestroyed() || stored.isEmpty()) return;
+            notificationList.clear();
+            notificationList.addAll(stored);
+            showNotifications();
+        });
+
         notifRef.addValueEventListener(new ValueEventListener() {
             @Override
             public void onDataChange(@NonNull DataSnapshot snapshot) {
+                liveDataLoaded = true;
                 notificationList.clear();
                 for (DataSnapshot ds : snapshot.getChildren()) {
                     Notification notif = ds.getValue(Notification.class);
@@ -74,16 +87,8 @@ public class NotificationActivity extends AppCompatActivity {
 
                 // Show newest alerts first
                 Collections.reverse(notificationList);
-                adapter.notifyDataSetChanged();
-
-                // Toggle visibility between List and Empty State
-                if (notificationList.isEmpty()) {
-                    if (layoutEmptyState != null) layoutEmptyState.setVisibility(View.VISIBLE);
-                    recyclerView.setVisibility(View.GONE);
-                } else {
-                    if (layoutEmptyState != null) layoutEmptyState.setVisibility(View.GONE);
-                    recyclerView.setVisibility(View.VISIBLE);
-                }
+                showNotifications();
+                offlineStore.replaceNotifications(uid, notificationList);
             }
 
             @Override
@@ -92,4 +97,17 @@ public class NotificationActivity extends AppCompatActivity {
             }
         });
     }
+
+    private void showNotifications() {
+        adapter.notifyDataSetChanged();
+
+        // Toggle visibility between List and Empty State
+        if (notificationList.isEmpty()) {
+            if (layoutEmptyState != null) layoutEmptyState.setVisibility(View.VISIBLE);
+            recyclerView.setVisibility(View.GONE);
+        } else {
+            if (layoutEmptyState != null) layoutEmptyState.setVisibility(View.GONE);
+            recyclerView.setVisibility(View.VISIBLE);
+        }
+    }
 }
\ No newline at end of file
@@ -1,15 +1,15 @@
 package com.example.disasterzone;
 
-import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
 import android.os.Bundle;
-import android.util.Base64;
+import android.view.View;
 import android.widget.ImageView;
 import android.widget.TextView;
 import android.widget.Toast;
 import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
+import com.bumptech.glide.Glide;
 import com.example.disasterzone.model.Post;
+import com.example.disasterzone.util.PostImage;
 import com.google.firebase.database.DataSnapshot;
 import com.google.firebase.database.DatabaseError;
 import com.google.firebase.database.DatabaseReference;
@@ -19,7 +19,7 @@ import com.google.firebase.database.ValueEventListener;
 public class PostDetailActivity extends AppCompatActivity {
 
     private ImageView imgPost;
-    private TextView tvUsername, tvDesc, tvDate;
+    private TextView tvUsername, tvDesc, tvDate, tvLoadFull;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -30,6 +30,7 @@ public class PostDetailActivity extends AppCompatActivity {
         tvUsername = findViewById(R.id.detailTvUsername);
         tvDesc = findViewById(R.id.detailTvDesc);
         tvDate = findViewById(R.id.detailTvDate);
+        tvLoadFull = findViewById(R.id.detailTvLoadFull);
 
         String postId = getIntent().getStringExtra("POST_ID");
 
@@ -46,20 +47,22 @@ public class PostDetailActivity extends AppCompatActivity {
         ref.addListenerForSingleValueEvent(new ValueEventListener() {
             @Override
             public void onDataChange(@NonNull DataSnapshot snapshot) {
+                if (isDestroyed()) return;
                 Post post = snapshot.getValue(Post.class);
                 if (post != null) {
                     tvUsername.setText(post.username);
                     tvDesc.setText(post.description);
                     tvDate.setText(android.text.format.DateFormat.format("dd/MM/yyyy HH:mm", post.timestamp));
 
-                    if (post.imageUrl != null && !post.imageUrl.isEmpty()) {
-                        try {
-                            byte[] decodedString = Base64.decode(post.imageUrl, Base64.DEFAULT);
-                            Bitmap decodedByte = BitmapFactory.decodeByteArray(decodedString, 0, decodedString.length);
-                            imgPost.setImageBitmap(decodedByte);
-                        } catch (Exception e) {
-                            imgPost.setImageResource(R.drawable.ic_launcher_background);
-                        }
+                    if (PostImage.hasImage(post)) {
+                        // Thumbnail first, the full photo only on tap
+                        Glide.with(PostDetailActivity.this)
+                                .load(PostImage.thumbOf(post))
+                                .error(R.drawable.ic_launcher_background)
+                                .into(imgPost);
+                        tvLoadFull.setVisibility(View.VISIBLE);
+                        imgPost.setOnClickListener(v -> loadFullImage(post));
+                        tvLoadFull.setOnClickListener(v -> loadFullImage(post));
                     }
                 }
             }
@@ -68,4 +71,13 @@ public class PostDetailActivity extends AppCompatActivity {
             public void onCancelled(@NonNull DatabaseError error) {}
         });
     }
+
+    private void loadFullImage(Post post) {
+        tvLoadFull.setVisibility(View.GONE);
+        imgPost.setOnClickListener(null);
+        Glide.with(this)
+                .load(PostImage.fullOf(post))
+                .thumbnail(Glide.with(this).load(PostImage.thumbOf(post)))
+                .into(imgPost);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,95 @@
+package com.example.disasterzone.adapter;
+
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.example.disasterzone.R;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Rows of the map's disaster picker, as ordered by {@link DisasterRanker}.
+ */
+public class DisasterPickerAdapter extends RecyclerView.Adapter<DisasterPickerAdapter.ViewHolder> {
+
+    public interface OnPickListener {
+        void onPick(String postId);
+    }
+
+    private static final int COLOR_ACTIVE = 0xFFD32F2F;
+    private static final int COLOR_INACTIVE = 0xFF757575;
+
+    private final OnPickListener listener;
+    private List<DisasterRanker.Row> rows = Collections.emptyList();
+    private String selectedId;
+
+    public DisasterPickerAdapter(OnPickListener listener) {
+        this.listener = listener;
+    }
+
+    public void submit(List<DisasterRanker.Row> rows, DiffUtil.DiffResult diff) {
+        this.rows = rows;
+        diff.dispatchUpdatesTo(this);
+    }
+
+    public void setSelectedId(String postId) {
+        String previous = selectedId;
+        selectedId = postId;
+        notifyRow(previous);
+        notifyRow(postId);
+    }
+
+    @NonNull
+    @Override
+    public ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View view = LayoutInflater.from(parent.getContext()).inflate(R.layout.item_disaster_pick, parent, false);
+        ViewHolder holder = new ViewHolder(view);
+        view.setOnClickListener(v -> {
+            int position = holder.getBindingAdapterPosition();
+            if (position != RecyclerView.NO_POSITION) listener.onPick(rows.get(position).entry.postId);
+        });
+        return holder;
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
+        DisasterRanker.Row row = rows.get(position);
+        holder.tvTitle.setText(row.entry.title);
+        holder.tvDetail.setText(row.detail);
+        holder.tvDetail.setTextColor(row.entry.isActive ? COLOR_ACTIVE : COLOR_INACTIVE);
+        holder.itemView.setActivated(row.entry.postId.equals(selectedId));
+    }
+
+    @Override
+    public int getItemCount() {
+        return rows.size();
+    }
+
+    private void notifyRow(String postId) {
+        if (postId == null) return;
+        for (int i = 0; i < rows.size(); i++) {
+            if (rows.get(i).entry.postId.equals(postId)) {
+                notifyItemChanged(i);
+                return;
+            }
+        }
+    }
+
+    static class ViewHolder extends RecyclerView.ViewHolder {
+        final TextView tvTitle;
+        final TextView tvDetail;
+
+        ViewHolder(@NonNull View itemView) {
+            super(itemView);
+            tvTitle = itemView.findViewById(R.id.tvPickTitle);
+            tvDetail = itemView.findViewById(R.id.tvPickDetail);
+        }
+    }
+}
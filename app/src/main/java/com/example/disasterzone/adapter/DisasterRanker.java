@@ -0,0 +1,183 @@
+package com.example.disasterzone.adapter;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.DiffUtil;
+
+import com.example.disasterzone.util.GeoUtil;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Filters the map's disasters by the search text and orders them nearest first.
+ * Work runs on a background thread, requests are debounced and only the result of
+ * the latest one is delivered, together with the diff against the rows on screen.
+ */
+public class DisasterRanker {
+
+    /** Immutable copy of what the picker needs from a post. */
+    public static final class Entry {
+        public final String postId;
+        public final String title;
+        public final boolean isActive;
+        public final double latitude;
+        public final double longitude;
+        public final long timestamp;
+        final String searchText;
+
+        public Entry(String postId, String title, boolean isActive,
+                     double latitude, double longitude, long timestamp) {
+            this.postId = postId;
+            this.title = title;
+            this.isActive = isActive;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.timestamp = timestamp;
+            this.searchText = title.toLowerCase(Locale.getDefault());
+        }
+    }
+
+    public static final class Row {
+        public final Entry entry;
+        public final double distanceKm;
+        public final String detail;
+
+        Row(Entry entry, double distanceKm) {
+            this.entry = entry;
+            this.distanceKm = distanceKm;
+            String status = entry.isActive ? "Active" : "Inactive";
+            this.detail = Double.isNaN(distanceKm) ? status
+                    : String.format(Locale.getDefault(), "%s · %.1f km away", status, distanceKm);
+        }
+    }
+
+    public interface Listener {
+        /** Main thread. {@code diff} turns the previously delivered rows into {@code rows}. */
+        void onRanked(List<Row> rows, DiffUtil.DiffResult diff);
+    }
+
+    public interface EntrySource {
+        /** Main thread. Returns a snapshot the background thread may read. */
+        List<Entry> snapshot();
+    }
+
+    private static final long DEBOUNCE_MS = 100;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final EntrySource source;
+    private final Listener listener;
+
+    private String[] terms = new String[0];
+    private boolean hasLocation;
+    private double latitude;
+    private double longitude;
+    private List<Row> delivered = Collections.emptyList();
+    private int generation;
+    private final Runnable run = this::runNow;
+
+    public DisasterRanker(EntrySource source, Listener listener) {
+        this.source = source;
+        this.listener = listener;
+    }
+
+    public void setQuery(@Nullable CharSequence query) {
+        String text = query == null ? "" : query.toString().trim().toLowerCase(Locale.getDefault());
+        terms = text.isEmpty() ? new String[0] : text.split("\\s+");
+        requestUpdate();
+    }
+
+    public void setLocation(double latitude, double longitude) {
+        this.hasLocation = true;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        requestUpdate();
+    }
+
+    public void requestUpdate() {
+        mainHandler.removeCallbacks(run);
+        mainHandler.postDelayed(run, DEBOUNCE_MS);
+    }
+
+    public void shutdown() {
+        mainHandler.removeCallbacksAndMessages(null);
+        executor.shutdownNow();
+    }
+
+    private void runNow() {
+        if (executor.isShutdown()) return;
+        List<Entry> entries = source.snapshot();
+        List<Row> previous = delivered;
+        String[] terms = this.terms;
+        boolean hasLocation = this.hasLocation;
+        double lat = latitude, lon = longitude;
+        int requested = ++generation;
+
+        executor.execute(() -> {
+            List<Row> rows = new ArrayList<>();
+            for (Entry entry : entries) {
+                if (!matches(entry, terms)) continue;
+                double distance = hasLocation
+                        ? GeoUtil.distanceKm(lat, lon, entry.latitude, entry.longitude) : Double.NaN;
+                rows.add(new Row(entry, distance));
+            }
+            // Nearest first; without a location fix the newest reports come first
+            Collections.sort(rows, (a, b) -> hasLocation
+                    ? Double.compare(a.distanceKm, b.distanceKm)
+                    : Long.compare(b.entry.timestamp, a.entry.timestamp));
+
+            DiffUtil.DiffResult diff = DiffUtil.calculateDiff(new RowDiff(previous, rows));
+            mainHandler.post(() -> {
+                if (requested != generation) return;
+                delivered = rows;
+                listener.onRanked(rows, diff);
+            });
+        });
+    }
+
+    private static boolean matches(Entry entry, String[] terms) {
+        for (String term : terms) {
+            if (!entry.searchText.contains(term)) return false;
+        }
+        return true;
+    }
+
+    private static class RowDiff extends DiffUtil.Callback {
+        private final List<Row> oldRows;
+        private final List<Row> newRows;
+
+        RowDiff(List<Row> oldRows, List<Row> newRows) {
+            this.oldRows = oldRows;
+            this.newRows = newRows;
+        }
+
+        @Override
+        public int getOldListSize() {
+            return oldRows.size();
+        }
+
+        @Override
+        public int getNewListSize() {
+            return newRows.size();
+        }
+
+        @Override
+        public boolean areItemsTheSame(int oldPosition, int newPosition) {
+            return oldRows.get(oldPosition).entry.postId.equals(newRows.get(newPosition).entry.postId);
+        }
+
+        @Override
+        public boolean areContentsTheSame(int oldPosition, int newPosition) {
+            Row a = oldRows.get(oldPosition);
+            Row b = newRows.get(newPosition);
+            return a.entry.title.equals(b.entry.title) && a.detail.equals(b.detail);
+        }
+    }
+}
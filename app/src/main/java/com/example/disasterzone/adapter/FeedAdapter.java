@@ -4,10 +4,11 @@ import android.app.AlertDialog;
 import android.content.Context;
 import android.content.Intent;
 import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
 import android.graphics.ColorMatrix;
 import android.graphics.ColorMatrixColorFilter;
-import android.util.Base64;
+import android.graphics.PorterDuff;
+import android.graphics.PorterDuffColorFilter;
+import android.graphics.drawable.Drawable;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -17,204 +18,275 @@ import android.widget.TextView;
 import android.widget.Toast;
 
 import androidx.annotation.NonNull;
-import androidx.cardview.widget.CardView;
 import androidx.core.content.ContextCompat;
 import androidx.recyclerview.widget.RecyclerView;
 
+import com.bumptech.glide.Glide;
 import com.example.disasterzone.CommentActivity;
 import com.example.disasterzone.R;
+import com.example.disasterzone.data.ReportOutbox;
 import com.example.disasterzone.model.Notification;
 import com.example.disasterzone.model.Post;
+import com.example.disasterzone.util.LikeCounter;
+import com.example.disasterzone.util.PostImage;
 import com.google.android.material.card.MaterialCardView;
 import com.google.firebase.auth.FirebaseAuth;
-import com.google.firebase.database.DataSnapshot;
-import com.google.firebase.database.DatabaseError;
 import com.google.firebase.database.DatabaseReference;
 import com.google.firebase.database.FirebaseDatabase;
-import com.google.firebase.database.ValueEventListener;
 import com.google.zxing.BarcodeFormat;
 import com.journeyapps.barcodescanner.BarcodeEncoder;
 
-import java.text.SimpleDateFormat;
-import java.util.Date;
 import java.util.List;
-import java.util.Locale;
 
 public class FeedAdapter extends RecyclerView.Adapter<FeedAdapter.ViewHolder> {
 
+    // Shared by every inactive row, filters are immutable once created
+    private static final ColorMatrixColorFilter GRAYSCALE;
+    static {
+        ColorMatrix matrix = new ColorMatrix();
+        matrix.setSaturation(0);
+        GRAYSCALE = new ColorMatrixColorFilter(matrix);
+    }
+
+    private static final int STYLE_UNKNOWN = -1, STYLE_INACTIVE = 0, STYLE_ACTIVE = 1, STYLE_PENDING = 2,
+            STYLE_FAILED = 3;
+
     private final Context context;
-    private final List<Post> postList;
+    private final List<PostViewModel> postList;
     private String currentUserId;
+    private final LikeSubscriptions likeSubscriptions;
+
+    // Colors resolved once instead of on every bind
+    private final int colorCardActive, colorCardInactive;
+    private final int colorTextActive, colorTextInactive;
+    private final int colorDateActive, colorDateInactive;
+    private final PorterDuffColorFilter inactiveTint;
+    private final String[] likeLabels = new String[100];
 
-    public FeedAdapter(Context context, List<Post> postList) {
+    public FeedAdapter(Context context, List<PostViewModel> postList) {
         this.context = context;
         this.postList = postList;
         if (FirebaseAuth.getInstance().getCurrentUser() != null) {
             currentUserId = FirebaseAuth.getInstance().getCurrentUser().getUid();
         }
+        likeSubscriptions = new LikeSubscriptions(FirebaseDatabase.getInstance().getReference(), currentUserId);
+
+        colorCardActive = ContextCompat.getColor(context, R.color.white);
+        colorCardInactive = ContextCompat.getColor(context, R.color.inactive_background);
+        colorTextActive = ContextCompat.getColor(context, R.color.active_text);
+        colorTextInactive = ContextCompat.getColor(context, R.color.inactive_text);
+        colorDateActive = ContextCompat.getColor(context, R.color.active_date);
+        colorDateInactive = ContextCompat.getColor(context, R.color.inactive_date);
+        inactiveTint = new PorterDuffColorFilter(
+                ContextCompat.getColor(context, R.color.inactive_color), PorterDuff.Mode.SRC_ATOP);
     }
 
     @NonNull
     @Override
     public ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
         View view = LayoutInflater.from(context).inflate(R.layout.item_post, parent, false);
-        return new ViewHolder(view);
-    }
-
-    @Override
-    public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
-        Post post = postList.get(position);
-        boolean isActive = post.isActive;
-
-        // Set username
-        holder.tvUsername.setText(post.username != null ? post.username : "Anonymous");
-
-        // Set description
-        holder.tvDesc.setText(post.description != null ? post.description : "");
-
-        // Format and set date
-        SimpleDateFormat sdf = new SimpleDateFormat("dd MMM, hh:mm a", Locale.getDefault());
-        String dateText = sdf.format(new Date(post.timestamp));
-        if (!isActive && post.endedTimestamp > 0) {
-            dateText += " • Ended: " + sdf.format(new Date(post.endedTimestamp));
-        }
-        holder.tvDate.setText(dateText);
-
-        // Set status badge
-        if (isActive) {
-            holder.tvStatusBadge.setText("ACTIVE");
-            holder.tvStatusBadge.setBackgroundResource(R.drawable.bg_status_badge_active);
-            holder.tvStatusBadge.setVisibility(View.VISIBLE);
-        } else {
-            holder.tvStatusBadge.setText("INACTIVE");
-            holder.tvStatusBadge.setBackgroundResource(R.drawable.bg_status_badge_inactive);
-            holder.tvStatusBadge.setVisibility(View.VISIBLE);
-        }
-
-        // Apply visual styling based on activity status
-        applyPostStyling(holder, isActive);
-
-        // --- IMAGE DECODING ---
-        if (post.imageUrl != null && !post.imageUrl.isEmpty()) {
-            try {
-                byte[] decodedString = Base64.decode(post.imageUrl, Base64.DEFAULT);
-                Bitmap decodedByte = BitmapFactory.decodeByteArray(decodedString, 0, decodedString.length);
-                holder.imgPost.setImageBitmap(decodedByte);
-
-                // Apply grayscale filter for inactive posts
-                if (!isActive) {
-                    applyGrayscaleFilter(holder.imgPost);
-                }
-
-                holder.imgPost.setVisibility(View.VISIBLE);
-                holder.imgPost.setAlpha(isActive ? 1.0f : 0.7f);
-            } catch (Exception e) {
-                holder.imgPost.setVisibility(View.GONE);
-            }
-        } else {
-            holder.imgPost.setVisibility(View.GONE);
-        }
-
-        // --- LIKE SYSTEM ---
-        DatabaseReference likeRef = FirebaseDatabase.getInstance().getReference("likes").child(post.postId);
-
-        // 1. Check status
-        likeRef.addValueEventListener(new ValueEventListener() {
-            @Override
-            public void onDataChange(@NonNull DataSnapshot snapshot) {
-                if (currentUserId != null && snapshot.child(currentUserId).exists()) {
-                    holder.imgLike.setImageResource(R.drawable.ic_heart_filled);
-                    if (!isActive) {
-                        holder.imgLike.setColorFilter(ContextCompat.getColor(context, R.color.inactive_color));
-                    }
-                } else {
-                    holder.imgLike.setImageResource(R.drawable.ic_heart_outline);
-                }
-                holder.tvLikeCount.setText(snapshot.getChildrenCount() + " likes");
-            }
-            @Override
-            public void onCancelled(@NonNull DatabaseError error) {}
-        });
-
-        // 2. Handle Like Click (disabled for inactive posts)
+        ViewHolder holder = new ViewHolder(view);
+        holder.likeCallback = (likeCount, likedByMe) -> showLikes(holder, likeCount, likedByMe);
+        holder.badgeActive = ContextCompat.getDrawable(context, R.drawable.bg_status_badge_active);
+        holder.badgeInactive = ContextCompat.getDrawable(context, R.drawable.bg_status_badge_inactive);
+        holder.badgePending = ContextCompat.getDrawable(context, R.drawable.bg_status_badge_pending);
+        holder.badgeFailed = ContextCompat.getDrawable(context, R.drawable.bg_status_badge_failed);
+
+        // Listeners are created once per row and read the currently bound model
         holder.btnLike.setOnClickListener(v -> {
-            if (!isActive) {
+            PostViewModel model = holder.model;
+            if (model == null) return;
+            if (model.pending) {
+                showNotUploaded(model);
+                return;
+            }
+            if (!model.isActive) {
                 Toast.makeText(context, "Cannot interact with inactive disasters", Toast.LENGTH_SHORT).show();
                 return;
             }
 
             if (currentUserId == null) return;
 
-            likeRef.addListenerForSingleValueEvent(new ValueEventListener() {
-                @Override
-                public void onDataChange(@NonNull DataSnapshot snapshot) {
-                    if (snapshot.child(currentUserId).exists()) {
-                        // Unlike
-                        likeRef.child(currentUserId).removeValue();
-                    } else {
-                        // Like
-                        likeRef.child(currentUserId).setValue(true);
-
-                        // Send notification
-                        sendLikeNotification(post.userId, post.description, post.postId);
-                    }
-                }
-                @Override public void onCancelled(@NonNull DatabaseError error) {}
-            });
+            // Toggle + counter update are transactional, notify only when it became a like
+            Post post = model.post;
+            LikeCounter.toggleLike(FirebaseDatabase.getInstance().getReference(), post.postId, currentUserId,
+                    () -> sendLikeNotification(post.userId, post.description, post.postId));
         });
 
-        // --- COMMENT CLICK ---
         holder.btnComment.setOnClickListener(v -> {
-            if (!isActive) {
+            PostViewModel model = holder.model;
+            if (model == null) return;
+            if (model.pending) {
+                showNotUploaded(model);
+                return;
+            }
+            if (!model.isActive) {
                 Toast.makeText(context, "Cannot comment on inactive disasters", Toast.LENGTH_SHORT).show();
                 return;
             }
 
             Intent intent = new Intent(context, CommentActivity.class);
-            intent.putExtra("postId", post.postId);
-            intent.putExtra("authorId", post.userId);
+            intent.putExtra("postId", model.postId);
+            intent.putExtra("authorId", model.post.userId);
             context.startActivity(intent);
         });
 
-        // --- QR GENERATION ---
         holder.btnQr.setOnClickListener(v -> {
-            if (!isActive) {
+            PostViewModel model = holder.model;
+            if (model == null) return;
+            if (model.pending) {
+                showNotUploaded(model);
+                return;
+            }
+            if (!model.isActive) {
                 Toast.makeText(context, "Cannot generate QR for inactive disasters", Toast.LENGTH_SHORT).show();
                 return;
             }
-            generateQR("DISASTER_ZONE|" + post.postId);
+            generateQR("DISASTER_ZONE|" + model.postId);
         });
 
-        // Disable/enable interactions based on post status
-        holder.btnQr.setEnabled(isActive);
-        holder.btnQr.setAlpha(isActive ? 1.0f : 0.5f);
+        holder.postCard.setOnClickListener(v -> {
+            PostViewModel model = holder.model;
+            if (model != null && model.failed) showFailedActions(model);
+        });
+        return holder;
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
+        PostViewModel model = postList.get(position);
+        bindContent(holder, model);
+
+        // --- IMAGE LOADING (decoded and downsampled off the UI thread) ---
+        if (model.localThumb != null) {
+            holder.imgPost.setVisibility(View.VISIBLE);
+            Glide.with(context)
+                    .load(model.localThumb)
+                    .error(android.R.drawable.ic_menu_gallery)
+                    .into(holder.imgPost);
+        } else if (model.thumb != null) {
+            holder.imgPost.setVisibility(View.VISIBLE);
+            Glide.with(context)
+                    .load(model.thumb)
+                    .error(android.R.drawable.ic_menu_gallery)
+                    .into(holder.imgPost);
+        } else {
+            Glide.with(context).clear(holder.imgPost);
+            holder.imgPost.setVisibility(View.GONE);
+        }
+
+        // --- LIKE SYSTEM ---
+        // One shared listener per post, released when the row is recycled
+        unbindLikes(holder);
+        if (model.pending) {
+            // Nothing to listen to until the post exists in the database
+            showLikes(holder, 0, false);
+            return;
+        }
+        holder.boundPostId = model.postId;
+        likeSubscriptions.subscribe(model.postId, holder.likeCallback);
+    }
+
+    // Text and styling only; everything is precomputed so this just assigns fields
+    void bindContent(ViewHolder holder, PostViewModel model) {
+        holder.model = model;
+        holder.tvUsername.setText(model.username);
+        holder.tvDesc.setText(model.description);
+        holder.tvDate.setText(model.dateText);
+
+        int style = model.failed ? STYLE_FAILED
+                : model.pending ? STYLE_PENDING : model.isActive ? STYLE_ACTIVE : STYLE_INACTIVE;
+        if (holder.style != style) {
+            applyPostStyling(holder, model.isActive);
+            if (style == STYLE_PENDING || style == STYLE_FAILED) {
+                holder.tvStatusBadge.setText(style == STYLE_FAILED ? "FAILED" : "UPLOADING");
+                holder.tvStatusBadge.setBackground(style == STYLE_FAILED ? holder.badgeFailed : holder.badgePending);
+                holder.imgPost.setAlpha(0.7f);
+                holder.btnQr.setAlpha(0.5f);
+            }
+            holder.style = style;
+        }
+    }
+
+    private void showLikes(ViewHolder holder, long likeCount, boolean likedByMe) {
+        if (likedByMe) {
+            holder.imgLike.setImageResource(R.drawable.ic_heart_filled);
+            if (holder.style == STYLE_INACTIVE) {
+                holder.imgLike.setColorFilter(inactiveTint);
+            }
+        } else {
+            holder.imgLike.setImageResource(R.drawable.ic_heart_outline);
+        }
+        holder.tvLikeCount.setText(likeLabel(likeCount));
+    }
+
+    private String likeLabel(long likeCount) {
+        if (likeCount < 0 || likeCount >= likeLabels.length) return likeCount + " likes";
+        String label = likeLabels[(int) likeCount];
+        if (label == null) {
+            label = likeCount + " likes";
+            likeLabels[(int) likeCount] = label;
+        }
+        return label;
+    }
+
+    private void unbindLikes(ViewHolder holder) {
+        if (holder.boundPostId != null) {
+            likeSubscriptions.unsubscribe(holder.boundPostId, holder.likeCallback);
+            holder.boundPostId = null;
+        }
     }
 
     private void applyPostStyling(ViewHolder holder, boolean isActive) {
         if (isActive) {
             // Active post styling
-            holder.postCard.setCardBackgroundColor(ContextCompat.getColor(context, R.color.white));
-            holder.tvUsername.setTextColor(ContextCompat.getColor(context, R.color.active_text));
-            holder.tvDesc.setTextColor(ContextCompat.getColor(context, R.color.active_text));
-            holder.tvDate.setTextColor(ContextCompat.getColor(context, R.color.active_date));
-            holder.tvLikeCount.setTextColor(ContextCompat.getColor(context, R.color.active_date));
+            holder.tvStatusBadge.setText("ACTIVE");
+            holder.tvStatusBadge.setBackground(holder.badgeActive);
+            holder.postCard.setCardBackgroundColor(colorCardActive);
+            holder.tvUsername.setTextColor(colorTextActive);
+            holder.tvDesc.setTextColor(colorTextActive);
+            holder.tvDate.setTextColor(colorDateActive);
+            holder.tvLikeCount.setTextColor(colorDateActive);
             holder.imgLike.clearColorFilter();
+            holder.imgPost.clearColorFilter();
+            holder.imgPost.setAlpha(1.0f);
         } else {
-            // Inactive post styling
-            holder.postCard.setCardBackgroundColor(ContextCompat.getColor(context, R.color.inactive_background));
-            holder.tvUsername.setTextColor(ContextCompat.getColor(context, R.color.inactive_text));
-            holder.tvDesc.setTextColor(ContextCompat.getColor(context, R.color.inactive_text));
-            holder.tvDate.setTextColor(ContextCompat.getColor(context, R.color.inactive_date));
-            holder.tvLikeCount.setTextColor(ContextCompat.getColor(context, R.color.inactive_date));
-            holder.imgLike.setColorFilter(ContextCompat.getColor(context, R.color.inactive_color));
+            // Inactive post styling, image shown in grayscale
+            holder.tvStatusBadge.setText("INACTIVE");
+            holder.tvStatusBadge.setBackground(holder.badgeInactive);
+            holder.postCard.setCardBackgroundColor(colorCardInactive);
+            holder.tvUsername.setTextColor(colorTextInactive);
+            holder.tvDesc.setTextColor(colorTextInactive);
+            holder.tvDate.setTextColor(colorDateInactive);
+            holder.tvLikeCount.setTextColor(colorDateInactive);
+            holder.imgLike.setColorFilter(inactiveTint);
+            holder.imgPost.setColorFilter(GRAYSCALE);
+            holder.imgPost.setAlpha(0.7f);
         }
+        holder.tvStatusBadge.setVisibility(View.VISIBLE);
+
+        // Disable/enable interactions based on post status
+        holder.btnQr.setEnabled(isActive);
+        holder.btnQr.setAlpha(isActive ? 1.0f : 0.5f);
     }
 
-    private void applyGrayscaleFilter(ImageView imageView) {
-        ColorMatrix matrix = new ColorMatrix();
-        matrix.setSaturation(0);
-        ColorMatrixColorFilter filter = new ColorMatrixColorFilter(matrix);
-        imageView.setColorFilter(filter);
+    private void showNotUploaded(PostViewModel model) {
+        if (model.failed) {
+            showFailedActions(model);
+        } else {
+            Toast.makeText(context, "This report is still uploading", Toast.LENGTH_SHORT).show();
+        }
+    }
+
+    // A report that ran out of upload attempts waits for the user to retry or drop it
+    private void showFailedActions(PostViewModel model) {
+        new AlertDialog.Builder(context)
+                .setTitle("Report not uploaded")
+                .setMessage("This report could not be uploaded. Try again, or discard it?")
+                .setPositiveButton("Retry", (dialog, which) -> ReportOutbox.get(context).retry(model.postId))
+                .setNegativeButton("Discard", (dialog, which) -> ReportOutbox.get(context).discard(model.postId))
+                .setNeutralButton("Cancel", null)
+                .show();
     }
 
     // --- HELPER: SEND NOTIFICATION ---
@@ -247,6 +319,21 @@ public class FeedAdapter extends RecyclerView.Adapter<FeedAdapter.ViewHolder> {
         }
     }
 
+    @Override
+    public void onViewRecycled(@NonNull ViewHolder holder) {
+        super.onViewRecycled(holder);
+        unbindLikes(holder);
+        holder.model = null;
+        // Release the bitmap back to Glide's pool
+        Glide.with(context).clear(holder.imgPost);
+    }
+
+    @Override
+    public void onDetachedFromRecyclerView(@NonNull RecyclerView recyclerView) {
+        super.onDetachedFromRecyclerView(recyclerView);
+        likeSubscriptions.clear();
+    }
+
     @Override
     public int getItemCount() {
         return postList.size();
@@ -258,6 +345,13 @@ public class FeedAdapter extends RecyclerView.Adapter<FeedAdapter.ViewHolder> {
         public ImageView imgAvatar, imgPost, imgLike, btnQr;
         public LinearLayout btnLike, btnComment;
 
+        // Model and like subscription currently attached to this row
+        PostViewModel model;
+        String boundPostId;
+        LikeSubscriptions.Callback likeCallback;
+        int style = STYLE_UNKNOWN;
+        Drawable badgeActive, badgeInactive, badgePending, badgeFailed;
+
         public ViewHolder(@NonNull View itemView) {
             super(itemView);
             postCard = itemView.findViewById(R.id.postCard);
@@ -0,0 +1,132 @@
+package com.example.disasterzone.adapter;
+
+import androidx.annotation.NonNull;
+
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.ValueEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Shared like state per postId for the rows of an adapter.
+ * Each post costs two tiny listeners, the denormalized posts/{postId}/likeCount and
+ * the current user's likes/{postId}/{uid} flag, never the whole likes list.
+ * Holders subscribe on bind and unsubscribe when recycled; the listeners are
+ * removed as soon as no holder shows that post anymore.
+ */
+public class LikeSubscriptions {
+
+    public interface Callback {
+        void onLikesChanged(long likeCount, boolean likedByMe);
+    }
+
+    private class Entry {
+        DatabaseReference countRef;
+        DatabaseReference myLikeRef;
+        ValueEventListener countListener;
+        ValueEventListener myLikeListener;
+        final List<Callback> callbacks = new ArrayList<>();
+        boolean hasCount;
+        boolean hasMyLike;
+        long likeCount;
+        boolean likedByMe;
+
+        void dispatch() {
+            if (!hasCount || !hasMyLike) return;
+            // Copy, a callback may unsubscribe while we iterate
+            for (Callback callback : new ArrayList<>(callbacks)) {
+                callback.onLikesChanged(likeCount, likedByMe);
+            }
+        }
+
+        void stop() {
+            countRef.removeEventListener(countListener);
+            if (myLikeRef != null) myLikeRef.removeEventListener(myLikeListener);
+        }
+    }
+
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final DatabaseReference root;
+    private final String currentUserId;
+
+    public LikeSubscriptions(DatabaseReference root, String currentUserId) {
+        this.root = root;
+        this.currentUserId = currentUserId;
+    }
+
+    public void subscribe(String postId, Callback callback) {
+        Entry entry = entries.get(postId);
+        if (entry == null) {
+            entry = startListening(postId);
+            entries.put(postId, entry);
+        }
+        if (!entry.callbacks.contains(callback)) {
+            entry.callbacks.add(callback);
+        }
+        // Late subscribers get the last known state right away
+        if (entry.hasCount && entry.hasMyLike) {
+            callback.onLikesChanged(entry.likeCount, entry.likedByMe);
+        }
+    }
+
+    public void unsubscribe(String postId, Callback callback) {
+        Entry entry = entries.get(postId);
+        if (entry == null) return;
+
+        entry.callbacks.remove(callback);
+        if (entry.callbacks.isEmpty()) {
+            entry.stop();
+            entries.remove(postId);
+        }
+    }
+
+    public void clear() {
+        for (Entry entry : entries.values()) {
+            entry.stop();
+        }
+        entries.clear();
+    }
+
+    private Entry startListening(String postId) {
+        Entry entry = new Entry();
+
+        entry.countRef = root.child("posts").child(postId).child("likeCount");
+        entry.countListener = new ValueEventListener() {
+            @Override
+            public void onDataChange(@NonNull DataSnapshot snapshot) {
+                Long count = snapshot.getValue(Long.class);
+                entry.likeCount = count != null ? Math.max(count, 0) : 0;
+                entry.hasCount = true;
+                entry.dispatch();
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError error) {}
+        };
+        entry.countRef.addValueEventListener(entry.countListener);
+
+        if (currentUserId == null) {
+            entry.hasMyLike = true;
+            return entry;
+        }
+        entry.myLikeRef = root.child("likes").child(postId).child(currentUserId);
+        entry.myLikeListener = new ValueEventListener() {
+            @Override
+            public void onDataChange(@NonNull DataSnapshot snapshot) {
+                entry.likedByMe = snapshot.exists();
+                entry.hasMyLike = true;
+                entry.dispatch();
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError error) {}
+        };
+        entry.myLikeRef.addValueEventListener(entry.myLikeListener);
+        return entry;
+    }
+}
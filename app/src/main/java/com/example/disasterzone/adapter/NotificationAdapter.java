@@ -1,9 +1,7 @@
 package com.example.disasterzone.adapter;
 
 import android.content.Context;
-import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
-import android.util.Base64;
+import android.graphics.drawable.Drawable;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -11,15 +9,18 @@ import android.widget.ImageView;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.recyclerview.widget.RecyclerView;
 
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.load.DataSource;
+import com.bumptech.glide.load.engine.GlideException;
+import com.bumptech.glide.request.RequestListener;
+import com.bumptech.glide.request.target.Target;
+import com.bumptech.glide.request.target.ViewTarget;
 import com.example.disasterzone.R;
 import com.example.disasterzone.model.Notification;
-import com.google.firebase.database.DataSnapshot;
-import com.google.firebase.database.DatabaseError;
-import com.google.firebase.database.DatabaseReference;
-import com.google.firebase.database.FirebaseDatabase;
-import com.google.firebase.database.ValueEventListener;
+import com.example.disasterzone.util.PostImage;
 
 import java.util.List;
 
@@ -28,6 +29,22 @@ public class NotificationAdapter extends RecyclerView.Adapter<NotificationAdapte
     private Context context;
     private List<Notification> notificationList;
 
+    // If post has no image or is deleted
+    private final RequestListener<Drawable> hidePreviewOnFailure = new RequestListener<Drawable>() {
+        @Override
+        public boolean onLoadFailed(@Nullable GlideException e, @Nullable Object model, @NonNull Target<Drawable> target, boolean isFirstResource) {
+            if (target instanceof ViewTarget) {
+                ((ViewTarget<?, ?>) target).getView().setVisibility(View.GONE);
+            }
+            return false;
+        }
+
+        @Override
+        public boolean onResourceReady(@NonNull Drawable resource, @NonNull Object model, Target<Drawable> target, @NonNull DataSource dataSource, boolean isFirstResource) {
+            return false;
+        }
+    };
+
     public NotificationAdapter(Context context, List<Notification> notificationList) {
         this.context = context;
         this.notificationList = notificationList;
@@ -56,35 +73,25 @@ public class NotificationAdapter extends RecyclerView.Adapter<NotificationAdapte
             holder.imgIcon.setImageResource(R.drawable.ic_notification);
         }
 
-        // 2. LOAD POST PREVIEW (Fetch image using postId)
+        // 2. LOAD POST PREVIEW (image is fetched by postId, the post itself is never read)
         if (notif.postId != null) {
-            DatabaseReference postRef = FirebaseDatabase.getInstance().getReference("posts").child(notif.postId);
-            postRef.addListenerForSingleValueEvent(new ValueEventListener() {
-                @Override
-                public void onDataChange(@NonNull DataSnapshot snapshot) {
-                    if (snapshot.exists() && snapshot.child("imageUrl").getValue() != null) {
-                        String base64Image = snapshot.child("imageUrl").getValue(String.class);
-                        try {
-                            byte[] decodedString = Base64.decode(base64Image, Base64.DEFAULT);
-                            Bitmap decodedByte = BitmapFactory.decodeByteArray(decodedString, 0, decodedString.length);
-                            holder.imgPreview.setImageBitmap(decodedByte);
-                            holder.imgPreview.setVisibility(View.VISIBLE);
-                        } catch (Exception e) {
-                            holder.imgPreview.setVisibility(View.GONE);
-                        }
-                    } else {
-                        // If post has no image or is deleted
-                        holder.imgPreview.setVisibility(View.GONE);
-                    }
-                }
-                @Override
-                public void onCancelled(@NonNull DatabaseError error) {}
-            });
+            holder.imgPreview.setVisibility(View.VISIBLE);
+            Glide.with(context)
+                    .load(PostImage.thumbForPostId(notif.postId))
+                    .listener(hidePreviewOnFailure)
+                    .into(holder.imgPreview);
         } else {
+            Glide.with(context).clear(holder.imgPreview);
             holder.imgPreview.setVisibility(View.GONE);
         }
     }
 
+    @Override
+    public void onViewRecycled(@NonNull ViewHolder holder) {
+        super.onViewRecycled(holder);
+        Glide.with(context).clear(holder.imgPreview);
+    }
+
     @Override
     public int getItemCount() {
         return notificationList.size();
@@ -4,8 +4,6 @@ import android.app.AlertDialog;
 import android.content.Context;
 import android.content.Intent;
 import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
-import android.util.Base64;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -14,16 +12,15 @@ import android.widget.LinearLayout;
 import android.widget.TextView;
 import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.RecyclerView;
+import com.bumptech.glide.Glide;
 import com.example.disasterzone.CommentActivity; // We will create this next
 import com.example.disasterzone.R;
 import com.example.disasterzone.model.Post;
+import com.example.disasterzone.util.LikeCounter;
+import com.example.disasterzone.util.PostImage;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
-import com.google.firebase.database.DataSnapshot;
-import com.google.firebase.database.DatabaseError;
-import com.google.firebase.database.DatabaseReference;
 import com.google.firebase.database.FirebaseDatabase;
-import com.google.firebase.database.ValueEventListener;
 import com.google.zxing.BarcodeFormat;
 import com.journeyapps.barcodescanner.BarcodeEncoder;
 import java.text.SimpleDateFormat;
@@ -36,19 +33,31 @@ public class PostAdapter extends RecyclerView.Adapter<PostAdapter.PostViewHolder
     private Context context;
     private List<Post> postList;
     private String myUid;
+    private LikeSubscriptions likeSubscriptions;
 
     public PostAdapter(Context context, List<Post> postList) {
         this.context = context;
         this.postList = postList;
         FirebaseUser user = FirebaseAuth.getInstance().getCurrentUser();
         if(user != null) myUid = user.getUid();
+        likeSubscriptions = new LikeSubscriptions(FirebaseDatabase.getInstance().getReference(), myUid);
     }
 
     @NonNull
     @Override
     public PostViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
         View view = LayoutInflater.from(context).inflate(R.layout.item_post, parent, false);
-        return new PostViewHolder(view);
+        PostViewHolder holder = new PostViewHolder(view);
+        holder.likeCallback = (likeCount, likedByMe) -> {
+            if (likedByMe) {
+                holder.imgLike.setImageResource(R.drawable.ic_heart_filled); // Red Heart
+                holder.tvLikeCount.setText(likeCount + " Liked");
+            } else {
+                holder.imgLike.setImageResource(R.drawable.ic_heart_outline); // Grey Heart
+                holder.tvLikeCount.setText(likeCount + " Likes");
+            }
+        };
+        return holder;
     }
 
     @Override
@@ -62,51 +71,26 @@ public class PostAdapter extends RecyclerView.Adapter<PostAdapter.PostViewHolder
         holder.tvDate.setText(sdf.format(new Date(post.timestamp)));
 
         // Load Image
-        if (post.imageUrl != null && !post.imageUrl.isEmpty()) {
-            try {
-                byte[] decodedString = Base64.decode(post.imageUrl, Base64.DEFAULT);
-                Bitmap decodedByte = BitmapFactory.decodeByteArray(decodedString, 0, decodedString.length);
-                holder.imgPost.setImageBitmap(decodedByte);
-            } catch (Exception e) {
-                holder.imgPost.setImageResource(android.R.drawable.ic_menu_gallery);
-            }
+        if (PostImage.hasImage(post)) {
+            Glide.with(context)
+                    .load(PostImage.thumbOf(post))
+                    .error(android.R.drawable.ic_menu_gallery)
+                    .into(holder.imgPost);
         } else {
+            Glide.with(context).clear(holder.imgPost);
             holder.imgPost.setImageResource(android.R.drawable.ic_menu_gallery);
         }
 
         // --- LIKE FUNCTIONALITY ---
-        DatabaseReference likesRef = FirebaseDatabase.getInstance().getReference("posts").child(post.postId).child("likes");
-
-        // 1. Check if I liked it & Count total likes
-        likesRef.addValueEventListener(new ValueEventListener() {
-            @Override
-            public void onDataChange(@NonNull DataSnapshot snapshot) {
-                if (snapshot.hasChild(myUid)) {
-                    holder.imgLike.setImageResource(R.drawable.ic_heart_filled); // Red Heart
-                    holder.tvLikeCount.setText(snapshot.getChildrenCount() + " Liked");
-                } else {
-                    holder.imgLike.setImageResource(R.drawable.ic_heart_outline); // Grey Heart
-                    holder.tvLikeCount.setText(snapshot.getChildrenCount() + " Likes");
-                }
-            }
-            @Override
-            public void onCancelled(@NonNull DatabaseError error) {}
-        });
+        // 1. Check if I liked it & Count total likes (shared per post, dropped on recycle)
+        unbindLikes(holder);
+        holder.boundPostId = post.postId;
+        likeSubscriptions.subscribe(post.postId, holder.likeCallback);
 
         // 2. Handle Like Click
         holder.btnLike.setOnClickListener(v -> {
-            likesRef.addListenerForSingleValueEvent(new ValueEventListener() {
-                @Override
-                public void onDataChange(@NonNull DataSnapshot snapshot) {
-                    if (snapshot.hasChild(myUid)) {
-                        likesRef.child(myUid).removeValue(); // Unlike
-                    } else {
-                        likesRef.child(myUid).setValue(true); // Like
-                    }
-                }
-                @Override
-                public void onCancelled(@NonNull DatabaseError error) {}
-            });
+            if (myUid == null) return;
+            LikeCounter.toggleLike(FirebaseDatabase.getInstance().getReference(), post.postId, myUid, null);
         });
 
         // --- COMMENT FUNCTIONALITY ---
@@ -135,6 +119,26 @@ public class PostAdapter extends RecyclerView.Adapter<PostAdapter.PostViewHolder
         builder.setTitle("Share Report QR").setView(imageView).setPositiveButton("Close", null).show();
     }
 
+    @Override
+    public void onViewRecycled(@NonNull PostViewHolder holder) {
+        super.onViewRecycled(holder);
+        unbindLikes(holder);
+        Glide.with(context).clear(holder.imgPost);
+    }
+
+    @Override
+    public void onDetachedFromRecyclerView(@NonNull RecyclerView recyclerView) {
+        super.onDetachedFromRecyclerView(recyclerView);
+        likeSubscriptions.clear();
+    }
+
+    private void unbindLikes(PostViewHolder holder) {
+        if (holder.boundPostId != null) {
+            likeSubscriptions.unsubscribe(holder.boundPostId, holder.likeCallback);
+            holder.boundPostId = null;
+        }
+    }
+
     @Override
     public int getItemCount() { return postList.size(); }
 
@@ -142,6 +146,8 @@ public class PostAdapter extends RecyclerView.Adapter<PostAdapter.PostViewHolder
         TextView tvUser, tvDate, tvDesc, tvLikeCount;
         ImageView imgPost, btnQr, imgLike;
         LinearLayout btnLike, btnComment;
+        String boundPostId;
+        LikeSubscriptions.Callback likeCallback;
 
         public PostViewHolder(@NonNull View itemView) {
             super(itemView);
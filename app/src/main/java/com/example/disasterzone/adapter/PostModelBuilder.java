@@ -0,0 +1,73 @@
+package com.example.disasterzone.adapter;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import com.example.disasterzone.model.Post;
+
+import java.io.File;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Turns posts into {@link PostViewModel}s on one background thread and hands them back
+ * on the main thread in submission order, so a later removal never races an earlier build.
+ */
+public class PostModelBuilder {
+
+    public interface Callback {
+        void onBuilt(PostViewModel model);
+    }
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    // Only used on the executor thread, so one instance is safe to share
+    private final SimpleDateFormat dateFormat = new SimpleDateFormat("dd MMM, hh:mm a", Locale.getDefault());
+    private final Date date = new Date();
+
+    public void build(Post post, Callback callback) {
+        if (executor.isShutdown()) return;
+        executor.execute(() -> {
+            PostViewModel model = create(post);
+            mainHandler.post(() -> callback.onBuilt(model));
+        });
+    }
+
+    // A report still waiting in the outbox, shown with its spooled thumbnail
+    public void buildPending(Post post, File localThumb, boolean failed, Callback callback) {
+        if (executor.isShutdown()) return;
+        executor.execute(() -> {
+            String status = failed ? " • Upload failed, tap to retry" : " • Waiting to upload";
+            PostViewModel model = new PostViewModel(post, format(post.timestamp) + status, localThumb, failed);
+            mainHandler.post(() -> callback.onBuilt(model));
+        });
+    }
+
+    // Runs on the main thread once every build submitted before it was delivered
+    public void afterPending(Runnable action) {
+        if (executor.isShutdown()) return;
+        executor.execute(() -> mainHandler.post(action));
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+        mainHandler.removeCallbacksAndMessages(null);
+    }
+
+    PostViewModel create(Post post) {
+        String dateText = format(post.timestamp);
+        if (!post.isActive && post.endedTimestamp > 0) {
+            dateText += " • Ended: " + format(post.endedTimestamp);
+        }
+        return new PostViewModel(post, dateText);
+    }
+
+    private String format(long millis) {
+        date.setTime(millis);
+        return dateFormat.format(date);
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.disasterzone.adapter;
+
+import com.example.disasterzone.model.Post;
+import com.example.disasterzone.util.PostImage;
+
+import java.io.File;
+
+/**
+ * Everything a feed row shows, already formatted. Built once per post update by
+ * {@link PostModelBuilder} off the main thread, so binding only assigns fields.
+ */
+public final class PostViewModel {
+
+    public final Post post; // Source data, for click actions
+    public final String postId;
+    public final long timestamp;
+    public final boolean isActive;
+    public final String username;
+    public final String description;
+    public final String dateText;
+    public final PostImage thumb; // null when the post has no image
+    public final File localThumb; // Spooled thumbnail of a report still in the outbox
+    public final boolean pending;
+    public final boolean failed; // Outbox report that ran out of upload attempts
+
+    PostViewModel(Post post, String dateText) {
+        this(post, dateText, null, false);
+    }
+
+    PostViewModel(Post post, String dateText, File localThumb, boolean failed) {
+        this.post = post;
+        this.postId = post.postId;
+        this.timestamp = post.timestamp;
+        this.isActive = post.isActive;
+        this.username = post.username != null ? post.username : "Anonymous";
+        this.description = post.description != null ? post.description : "";
+        this.dateText = dateText;
+        this.thumb = localThumb == null && PostImage.hasImage(post) ? PostImage.thumbOf(post) : null;
+        this.localThumb = localThumb;
+        this.pending = localThumb != null;
+        this.failed = failed;
+    }
+}
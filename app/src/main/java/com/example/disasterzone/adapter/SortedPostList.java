@@ -0,0 +1,83 @@
+package com.example.disasterzone.adapter;
+
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps an adapter's backing list sorted newest first and translates every
+ * change into the matching notifyItem* call, so one changed post rebinds one row.
+ */
+public class SortedPostList {
+
+    public static final Comparator<PostViewModel> NEWEST_FIRST = (a, b) -> {
+        int byTime = Long.compare(b.timestamp, a.timestamp);
+        return byTime != 0 ? byTime : a.postId.compareTo(b.postId);
+    };
+
+    private final List<PostViewModel> postList;
+    private final RecyclerView.Adapter<?> adapter;
+    private final Map<String, PostViewModel> postsById = new HashMap<>();
+
+    public SortedPostList(List<PostViewModel> postList, RecyclerView.Adapter<?> adapter) {
+        this.postList = postList;
+        this.adapter = adapter;
+    }
+
+    public void upsert(PostViewModel post) {
+        PostViewModel old = postsById.put(post.postId, post);
+        if (old == null) {
+            int index = insertionIndex(post);
+            postList.add(index, post);
+            adapter.notifyItemInserted(index);
+            return;
+        }
+
+        int from = Collections.binarySearch(postList, old, NEWEST_FIRST);
+        if (NEWEST_FIRST.compare(old, post) == 0) {
+            postList.set(from, post);
+            adapter.notifyItemChanged(from);
+        } else {
+            postList.remove(from);
+            int to = insertionIndex(post);
+            postList.add(to, post);
+            adapter.notifyItemMoved(from, to);
+            adapter.notifyItemChanged(to);
+        }
+    }
+
+    public void remove(String postId) {
+        PostViewModel old = postsById.remove(postId);
+        if (old == null) return;
+
+        int index = Collections.binarySearch(postList, old, NEWEST_FIRST);
+        if (index >= 0) {
+            postList.remove(index);
+            adapter.notifyItemRemoved(index);
+        }
+    }
+
+    public boolean contains(String postId) {
+        return postsById.containsKey(postId);
+    }
+
+    public void clear() {
+        int count = postList.size();
+        postList.clear();
+        postsById.clear();
+        adapter.notifyItemRangeRemoved(0, count);
+    }
+
+    public boolean isEmpty() {
+        return postList.isEmpty();
+    }
+
+    private int insertionIndex(PostViewModel post) {
+        int index = Collections.binarySearch(postList, post, NEWEST_FIRST);
+        return index >= 0 ? index : -(index + 1);
+    }
+}
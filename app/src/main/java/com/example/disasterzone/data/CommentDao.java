@@ -0,0 +1,31 @@
+package com.example.disasterzone.data;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import androidx.room.Transaction;
+
+import java.util.List;
+
+@Dao
+public abstract class CommentDao {
+
+    @Query("SELECT * FROM comments WHERE postId = :postId ORDER BY timestamp")
+    public abstract List<CommentEntity> forPost(String postId);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    public abstract void insertAll(List<CommentEntity> comments);
+
+    @Query("DELETE FROM comments WHERE postId = :postId")
+    public abstract void deleteForPost(String postId);
+
+    @Transaction
+    public void replaceForPost(String postId, List<CommentEntity> comments) {
+        deleteForPost(postId);
+        insertAll(comments);
+    }
+
+    @Query("DELETE FROM comments WHERE postId NOT IN (SELECT postId FROM posts)")
+    public abstract int deleteOrphans();
+}
@@ -0,0 +1,35 @@
+package com.example.disasterzone.data;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+import com.example.disasterzone.model.Comment;
+
+@Entity(tableName = "comments", indices = {@Index("postId")})
+public class CommentEntity {
+    @PrimaryKey
+    @NonNull
+    public String commentId = "";
+    public String postId;
+    public String userId;
+    public String username;
+    public String text;
+    public long timestamp;
+
+    public static CommentEntity from(String postId, Comment comment) {
+        CommentEntity e = new CommentEntity();
+        e.commentId = comment.commentId;
+        e.postId = postId;
+        e.userId = comment.userId;
+        e.username = comment.username;
+        e.text = comment.text;
+        e.timestamp = comment.timestamp;
+        return e;
+    }
+
+    public Comment toComment() {
+        return new Comment(commentId, userId, username, text, timestamp);
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.disasterzone.data;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.firebase.database.ChildEventListener;
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.Query;
+import com.google.firebase.database.ValueEventListener;
+
+/**
+ * Keyset pagination over posts ordered by timestamp.
+ * The newest page is a live query; older pages are one-shot reads that continue
+ * strictly before the oldest (timestamp, key) pair seen so far. Every {@link #start}
+ * begins a new generation; callbacks from an earlier one are ignored, so a reload never
+ * mixes in pages or cursor moves that were still in flight.
+ */
+public class FeedPager {
+
+    public interface Listener {
+        void onPostChanged(@NonNull DataSnapshot snapshot);
+        void onPostRemoved(@NonNull String postId);
+        void onPageLoaded(int count, boolean hasMore);
+        void onError(@NonNull DatabaseError error);
+    }
+
+    private final DatabaseReference postsRef;
+    private final int pageSize;
+    private final Listener listener;
+
+    private Query headQuery;
+    private ChildEventListener headListener;
+    private ValueEventListener headLoadedListener;
+    // Bumped by start() and stop(); listeners compare it with the value they were created under
+    private int generation;
+
+    // Oldest post loaded so far, the cursor for the next page
+    private Double cursorTimestamp;
+    private String cursorKey;
+    private boolean loading;
+    private boolean hasMore;
+
+    public FeedPager(DatabaseReference postsRef, int pageSize, Listener listener) {
+        this.postsRef = postsRef;
+        this.pageSize = pageSize;
+        this.listener = listener;
+    }
+
+    public void start() {
+        stop();
+        int gen = ++generation;
+        cursorTimestamp = null;
+        cursorKey = null;
+        hasMore = true;
+        loading = true;
+
+        headQuery = postsRef.orderByChild("timestamp").limitToLast(pageSize);
+        headListener = new ChildEventListener() {
+            @Override
+            public void onChildAdded(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+                if (gen != generation) return;
+                trackCursor(snapshot);
+                listener.onPostChanged(snapshot);
+            }
+
+            @Override
+            public void onChildChanged(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+                if (gen != generation) return;
+                listener.onPostChanged(snapshot);
+            }
+
+            @Override
+            public void onChildRemoved(@NonNull DataSnapshot snapshot) {
+                if (gen != generation) return;
+                // limitToLast also "removes" the oldest child when a newer post arrives,
+                // so only drop it from the feed if it is really gone
+                String postId = snapshot.getKey();
+                snapshot.getRef().addListenerForSingleValueEvent(new ValueEventListener() {
+                    @Override
+                    public void onDataChange(@NonNull DataSnapshot current) {
+                        if (gen != generation) return;
+                        if (!current.exists() && postId != null) listener.onPostRemoved(postId);
+                    }
+                    @Override
+                    public void onCancelled(@NonNull DatabaseError error) {}
+                });
+            }
+
+            @Override
+            public void onChildMoved(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {}
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError error) {
+                if (gen != generation) return;
+                listener.onError(error);
+            }
+        };
+        headQuery.addChildEventListener(headListener);
+
+        // Completes after the initial children of the head page were delivered
+        headLoadedListener = new ValueEventListener() {
+            @Override
+            public void onDataChange(@NonNull DataSnapshot snapshot) {
+                if (gen != generation) return;
+                finishPage((int) snapshot.getChildrenCount());
+            }
+            @Override
+            public void onCancelled(@NonNull DatabaseError error) {
+                if (gen != generation) return;
+                loading = false;
+            }
+        };
+        headQuery.addListenerForSingleValueEvent(headLoadedListener);
+    }
+
+    public void loadNextPage() {
+        if (loading || !hasMore || cursorTimestamp == null) return;
+        loading = true;
+        int gen = generation;
+
+        postsRef.orderByChild("timestamp")
+                .endBefore(cursorTimestamp, cursorKey)
+                .limitToLast(pageSize)
+                .addListenerForSingleValueEvent(new ValueEventListener() {
+                    @Override
+                    public void onDataChange(@NonNull DataSnapshot snapshot) {
+                        // Started before a reload, its cursor and posts belong to the old list
+                        if (gen != generation) return;
+                        for (DataSnapshot ds : snapshot.getChildren()) {
+                            trackCursor(ds);
+                            listener.onPostChanged(ds);
+                        }
+                        finishPage((int) snapshot.getChildrenCount());
+                    }
+                    @Override
+                    public void onCancelled(@NonNull DatabaseError error) {
+                        if (gen != generation) return;
+                        loading = false;
+                        listener.onError(error);
+                    }
+                });
+    }
+
+    public boolean isLoading() {
+        return loading;
+    }
+
+    public boolean hasMore() {
+        return hasMore;
+    }
+
+    // Timestamp of the oldest post loaded so far, everything newer has been seen
+    public long oldestTimestamp() {
+        return cursorTimestamp == null ? Long.MAX_VALUE : cursorTimestamp.longValue();
+    }
+
+    public void stop() {
+        if (headQuery != null) {
+            if (headListener != null) headQuery.removeEventListener(headListener);
+            if (headLoadedListener != null) headQuery.removeEventListener(headLoadedListener);
+        }
+        headQuery = null;
+        headListener = null;
+        headLoadedListener = null;
+        // Anything still in flight is from a load that no longer counts
+        generation++;
+    }
+
+    private void finishPage(int count) {
+        loading = false;
+        hasMore = count >= pageSize;
+        listener.onPageLoaded(count, hasMore);
+    }
+
+    private void trackCursor(DataSnapshot snapshot) {
+        Long timestamp = snapshot.child("timestamp").getValue(Long.class);
+        if (timestamp == null) timestamp = 0L;
+        String key = snapshot.getKey();
+        if (cursorTimestamp == null || timestamp < cursorTimestamp
+                || (timestamp == cursorTimestamp.doubleValue() && key != null && key.compareTo(cursorKey) < 0)) {
+            cursorTimestamp = (double) timestamp;
+            cursorKey = key;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.disasterzone.data;
+
+import android.content.Context;
+
+import androidx.room.Database;
+import androidx.room.Room;
+import androidx.room.RoomDatabase;
+import androidx.room.migration.Migration;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+@Database(entities = {PostEntity.class, CommentEntity.class, NotificationEntity.class, OutboxEntity.class},
+        version = 3, exportSchema = false)
+public abstract class LocalDatabase extends RoomDatabase {
+
+    private static volatile LocalDatabase instance;
+
+    public abstract PostDao posts();
+
+    public abstract CommentDao comments();
+
+    public abstract NotificationDao notifications();
+
+    public abstract OutboxDao outbox();
+
+    // The other tables are caches, but queued reports must survive upgrades
+    static final Migration MIGRATION_1_2 = new Migration(1, 2) {
+        @Override
+        public void migrate(SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `outbox` (`postId` TEXT NOT NULL, `userId` TEXT, "
+                    + "`description` TEXT, `latitude` REAL NOT NULL, `longitude` REAL NOT NULL, "
+                    + "`timestamp` INTEGER NOT NULL, `imageFile` TEXT, `thumbFile` TEXT, "
+                    + "`imageWidth` INTEGER NOT NULL, `imageHeight` INTEGER NOT NULL, "
+                    + "`attempts` INTEGER NOT NULL, `lastError` TEXT, PRIMARY KEY(`postId`))");
+        }
+    };
+
+    static final Migration MIGRATION_2_3 = new Migration(2, 3) {
+        @Override
+        public void migrate(SupportSQLiteDatabase db) {
+            db.execSQL("ALTER TABLE `outbox` ADD COLUMN `chunksUploaded` INTEGER NOT NULL DEFAULT 0");
+            db.execSQL("ALTER TABLE `posts` ADD COLUMN `imageChunks` INTEGER NOT NULL DEFAULT 0");
+            db.execSQL("ALTER TABLE `posts` ADD COLUMN `imageBytes` INTEGER NOT NULL DEFAULT 0");
+        }
+    };
+
+    public static LocalDatabase get(Context context) {
+        if (instance == null) {
+            synchronized (LocalDatabase.class) {
+                if (instance == null) {
+                    instance = Room.databaseBuilder(context.getApplicationContext(),
+                                    LocalDatabase.class, "disasterzone.db")
+                            // No destructive fallback: it would also drop queued reports and
+                            // orphan their spooled files. Every version bump needs a migration,
+                            // which may clear the cache tables itself.
+                            .addMigrations(MIGRATION_1_2, MIGRATION_2_3)
+                            .build();
+                }
+            }
+        }
+        return instance;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.disasterzone.data;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import androidx.room.Transaction;
+
+import java.util.List;
+
+@Dao
+public abstract class NotificationDao {
+
+    @Query("SELECT * FROM notifications WHERE ownerId = :ownerId ORDER BY timestamp DESC")
+    public abstract List<NotificationEntity> forOwner(String ownerId);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    public abstract void insertAll(List<NotificationEntity> notifications);
+
+    @Query("DELETE FROM notifications WHERE ownerId = :ownerId")
+    public abstract void deleteForOwner(String ownerId);
+
+    @Transaction
+    public void replaceForOwner(String ownerId, List<NotificationEntity> notifications) {
+        deleteForOwner(ownerId);
+        insertAll(notifications);
+    }
+
+    @Query("DELETE FROM notifications WHERE notificationId NOT IN "
+            + "(SELECT notificationId FROM notifications ORDER BY timestamp DESC LIMIT :keep)")
+    public abstract int keepNewest(int keep);
+}
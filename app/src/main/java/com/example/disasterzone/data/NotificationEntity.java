@@ -0,0 +1,35 @@
+package com.example.disasterzone.data;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+import com.example.disasterzone.model.Notification;
+
+@Entity(tableName = "notifications", indices = {@Index("ownerId")})
+public class NotificationEntity {
+    @PrimaryKey
+    @NonNull
+    public String notificationId = "";
+    public String ownerId;
+    public String message;
+    public String type;
+    public String postId;
+    public long timestamp;
+
+    public static NotificationEntity from(String ownerId, Notification notif) {
+        NotificationEntity e = new NotificationEntity();
+        e.notificationId = notif.notificationId;
+        e.ownerId = ownerId;
+        e.message = notif.message;
+        e.type = notif.type;
+        e.postId = notif.postId;
+        e.timestamp = notif.timestamp;
+        return e;
+    }
+
+    public Notification toNotification() {
+        return new Notification(notificationId, message, type, postId, timestamp);
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.disasterzone.data;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+
+import com.example.disasterzone.model.Comment;
+import com.example.disasterzone.model.Notification;
+import com.example.disasterzone.model.Post;
+import com.example.disasterzone.util.DisasterExpiry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * On-device copy of what the screens last showed, so they can render before (or without)
+ * the network. The Firebase listeners write through to it; reads and writes run on one
+ * background thread and results come back on the main thread.
+ */
+public class OfflineStore {
+
+    public interface Callback<T> {
+        void onLoaded(@NonNull T result);
+    }
+
+    private static final int MAX_POSTS = 500;
+    private static final int MAX_NOTIFICATIONS = 200;
+    private static final long TRIM_INTERVAL_MS = 60 * 1000L;
+
+    private static volatile OfflineStore instance;
+
+    private final LocalDatabase db;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private long lastTrim; // Only touched on the executor
+
+    private OfflineStore(Context context) {
+        db = LocalDatabase.get(context);
+    }
+
+    public static OfflineStore get(Context context) {
+        if (instance == null) {
+            synchronized (OfflineStore.class) {
+                if (instance == null) instance = new OfflineStore(context);
+            }
+        }
+        return instance;
+    }
+
+    // --- POSTS ---
+
+    public void loadPosts(Callback<List<Post>> callback) {
+        executor.execute(() -> {
+            trim(true);
+            List<Post> posts = new ArrayList<>();
+            for (PostEntity e : db.posts().newest(MAX_POSTS)) posts.add(e.toPost());
+            mainHandler.post(() -> callback.onLoaded(posts));
+        });
+    }
+
+    public void savePost(Post post) {
+        if (post == null || post.postId == null) return;
+        PostEntity entity = PostEntity.from(post);
+        executor.execute(() -> {
+            db.posts().upsert(entity);
+            trim(false);
+        });
+    }
+
+    public void removePost(String postId) {
+        if (postId == null) return;
+        executor.execute(() -> db.posts().delete(postId));
+    }
+
+    // For listeners that see the whole "posts" node, anything not in it is gone
+    public void replacePosts(List<Post> posts) {
+        List<PostEntity> entities = new ArrayList<>();
+        for (Post post : posts) {
+            if (post.postId != null) entities.add(PostEntity.from(post));
+        }
+        executor.execute(() -> {
+            db.posts().replaceAll(entities);
+            trim(true);
+        });
+    }
+
+    // --- COMMENTS ---
+
+    public void loadComments(String postId, Callback<List<Comment>> callback) {
+        executor.execute(() -> {
+            List<Comment> comments = new ArrayList<>();
+            for (CommentEntity e : db.comments().forPost(postId)) comments.add(e.toComment());
+            mainHandler.post(() -> callback.onLoaded(comments));
+        });
+    }
+
+    public void replaceComments(String postId, List<Comment> comments) {
+        List<CommentEntity> entities = new ArrayList<>();
+        for (Comment c : comments) {
+            if (c.commentId != null) entities.add(CommentEntity.from(postId, c));
+        }
+        executor.execute(() -> db.comments().replaceForPost(postId, entities));
+    }
+
+    // --- NOTIFICATIONS ---
+
+    public void loadNotifications(String ownerId, Callback<List<Notification>> callback) {
+        executor.execute(() -> {
+            List<Notification> notifications = new ArrayList<>();
+            for (NotificationEntity e : db.notifications().forOwner(ownerId)) {
+                notifications.add(e.toNotification());
+            }
+            mainHandler.post(() -> callback.onLoaded(notifications));
+        });
+    }
+
+    public void replaceNotifications(String ownerId, List<Notification> notifications) {
+        List<NotificationEntity> entities = new ArrayList<>();
+        for (Notification n : notifications) {
+            if (n.notificationId != null) entities.add(NotificationEntity.from(ownerId, n));
+        }
+        executor.execute(() -> {
+            db.notifications().replaceForOwner(ownerId, entities);
+            db.notifications().keepNewest(MAX_NOTIFICATIONS);
+        });
+    }
+
+    // Drops disasters that ended over a day ago, caps the table size, then the comments
+    // left without a post. Called on the executor, at most once a minute unless forced.
+    private void trim(boolean force) {
+        long now = System.currentTimeMillis();
+        if (!force && now - lastTrim < TRIM_INTERVAL_MS) return;
+        lastTrim = now;
+
+        db.posts().deleteEndedBefore(now - DisasterExpiry.EXPIRY_MS);
+        db.posts().keepNewest(MAX_POSTS);
+        db.comments().deleteOrphans();
+    }
+}
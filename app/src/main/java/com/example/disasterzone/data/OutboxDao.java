@@ -0,0 +1,34 @@
+package com.example.disasterzone.data;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import java.util.List;
+
+@Dao
+public abstract class OutboxDao {
+
+    @Query("SELECT * FROM outbox ORDER BY timestamp ASC")
+    public abstract List<OutboxEntity> oldestFirst();
+
+    // Reports that have not used up their attempts yet
+    @Query("SELECT * FROM outbox WHERE attempts < :maxAttempts ORDER BY timestamp ASC")
+    public abstract List<OutboxEntity> retryable(int maxAttempts);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    public abstract void insert(OutboxEntity report);
+
+    @Query("DELETE FROM outbox WHERE postId = :postId")
+    public abstract void delete(String postId);
+
+    @Query("UPDATE outbox SET chunksUploaded = :chunks WHERE postId = :postId")
+    public abstract void setChunksUploaded(String postId, int chunks);
+
+    @Query("UPDATE outbox SET attempts = attempts + 1, lastError = :error WHERE postId = :postId")
+    public abstract void recordFailure(String postId, String error);
+
+    @Query("UPDATE outbox SET attempts = :attempts, lastError = :error WHERE postId = :postId")
+    public abstract void setFailure(String postId, int attempts, String error);
+}
@@ -0,0 +1,26 @@
+package com.example.disasterzone.data;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+// A report waiting to be uploaded; the photo and thumbnail are spooled to files
+@Entity(tableName = "outbox")
+public class OutboxEntity {
+    // Push key reserved when the report was made, so a retried upload overwrites itself
+    @PrimaryKey
+    @NonNull
+    public String postId = "";
+    public String userId;
+    public String description;
+    public double latitude;
+    public double longitude;
+    public long timestamp;
+    public String imageFile;
+    public String thumbFile;
+    public int imageWidth;
+    public int imageHeight;
+    public int attempts;
+    public int chunksUploaded; // Image chunks the server has confirmed, where a retry resumes
+    public String lastError;
+}
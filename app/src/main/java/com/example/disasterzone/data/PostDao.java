@@ -0,0 +1,44 @@
+package com.example.disasterzone.data;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import androidx.room.Transaction;
+
+import java.util.List;
+
+@Dao
+public abstract class PostDao {
+
+    @Query("SELECT * FROM posts ORDER BY timestamp DESC LIMIT :limit")
+    public abstract List<PostEntity> newest(int limit);
+
+    @Query("SELECT * FROM posts WHERE isActive = 1 ORDER BY timestamp DESC LIMIT :limit")
+    public abstract List<PostEntity> newestActive(int limit);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    public abstract void upsert(PostEntity post);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    public abstract void upsertAll(List<PostEntity> posts);
+
+    @Query("DELETE FROM posts WHERE postId = :postId")
+    public abstract void delete(String postId);
+
+    @Query("DELETE FROM posts")
+    public abstract void deleteAll();
+
+    @Transaction
+    public void replaceAll(List<PostEntity> posts) {
+        deleteAll();
+        upsertAll(posts);
+    }
+
+    // Same rule as the feed: ended disasters disappear 24 hours after ending
+    @Query("DELETE FROM posts WHERE isActive = 0 AND endedTimestamp < :cutoff")
+    public abstract int deleteEndedBefore(long cutoff);
+
+    @Query("DELETE FROM posts WHERE postId NOT IN (SELECT postId FROM posts ORDER BY timestamp DESC LIMIT :keep)")
+    public abstract int keepNewest(int keep);
+}
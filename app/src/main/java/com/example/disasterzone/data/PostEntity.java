@@ -0,0 +1,65 @@
+package com.example.disasterzone.data;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+import com.example.disasterzone.model.Post;
+
+// Image bytes are never stored here, Glide's disk cache keeps the thumbnails
+@Entity(tableName = "posts", indices = {@Index("timestamp")})
+public class PostEntity {
+    @PrimaryKey
+    @NonNull
+    public String postId = "";
+    public String userId;
+    public String username;
+    public String description;
+    public String imagePath;
+    public String thumbPath;
+    public int imageWidth;
+    public int imageHeight;
+    public int imageChunks;
+    public int imageBytes;
+    public double latitude;
+    public double longitude;
+    public long timestamp;
+    public boolean isActive;
+    public long endedTimestamp;
+    public long likeCount;
+
+    public static PostEntity from(Post post) {
+        PostEntity e = new PostEntity();
+        e.postId = post.postId;
+        e.userId = post.userId;
+        e.username = post.username;
+        e.description = post.description;
+        e.imagePath = post.imagePath;
+        e.thumbPath = post.thumbPath;
+        e.imageWidth = post.imageWidth;
+        e.imageHeight = post.imageHeight;
+        e.imageChunks = post.imageChunks;
+        e.imageBytes = post.imageBytes;
+        e.latitude = post.latitude;
+        e.longitude = post.longitude;
+        e.timestamp = post.timestamp;
+        e.isActive = post.isActive;
+        e.endedTimestamp = post.endedTimestamp;
+        e.likeCount = post.likeCount;
+        return e;
+    }
+
+    public Post toPost() {
+        Post post = new Post(postId, userId, username, description, null,
+                latitude, longitude, timestamp, isActive, endedTimestamp);
+        post.imagePath = imagePath;
+        post.thumbPath = thumbPath;
+        post.imageWidth = imageWidth;
+        post.imageHeight = imageHeight;
+        post.imageChunks = imageChunks;
+        post.imageBytes = imageBytes;
+        post.likeCount = likeCount;
+        return post;
+    }
+}
@@ -0,0 +1,239 @@
+package com.example.disasterzone.data;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.example.disasterzone.R;
+import com.example.disasterzone.model.Post;
+import com.example.disasterzone.util.BitmapDecoder;
+import com.example.disasterzone.util.ImageUtil;
+import com.example.disasterzone.util.UploadProfile;
+import com.google.firebase.database.FirebaseDatabase;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Reports the user has submitted but that have not reached the database yet.
+ * {@link #enqueue} spools the photo to disk and stores the report in Room, then
+ * {@link UploadWorker} drains the queue whenever there is a network. A report that
+ * fails {@link #MAX_ATTEMPTS} times stays queued but is no longer retried until the
+ * user asks to. Listeners see the queue as posts so the feed can show them as pending
+ * or failed.
+ */
+public class ReportOutbox {
+
+    public interface Listener {
+        /** Main thread. Oldest first; {@code failed} holds the ids that gave up. */
+        void onOutboxChanged(@NonNull List<Post> pending, @NonNull Set<String> failed);
+    }
+
+    public interface SpoolCallback {
+        /** Main thread. {@code saved} is false when the report never reached the disk. */
+        void onSpooled(boolean saved);
+    }
+
+    // With the 30 s exponential backoff this keeps trying for about an hour of connectivity
+    static final int MAX_ATTEMPTS = 8;
+
+    private static final String TAG = "ReportOutbox";
+    private static final String SPOOL_DIR = "outbox";
+    // JPEG or WebP, whichever ImageUtil picked; decoders sniff the format
+    private static final String IMAGE_SUFFIX = ".img";
+    private static final String THUMB_SUFFIX = ".thumb.img";
+
+    private static volatile ReportOutbox instance;
+
+    private final Context context;
+    private final OutboxDao dao;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Set<Listener> listeners = new CopyOnWriteArraySet<>();
+    private final int longEdge;
+
+    private ReportOutbox(Context context) {
+        this.context = context.getApplicationContext();
+        this.dao = LocalDatabase.get(context).outbox();
+        this.longEdge = context.getResources().getInteger(R.integer.upload_long_edge);
+    }
+
+    public static ReportOutbox get(Context context) {
+        if (instance == null) {
+            synchronized (ReportOutbox.class) {
+                if (instance == null) instance = new ReportOutbox(context);
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Returns at once; encoding, spooling and the upload all happen in the background.
+     * {@code callback} hears whether the report was saved; a failure is also posted as
+     * a notification, since the caller may be gone by then.
+     */
+    public void enqueue(String userId, String description, double latitude, double longitude, Bitmap photo,
+                        SpoolCallback callback) {
+        String postId = FirebaseDatabase.getInstance().getReference("posts").push().getKey();
+        long timestamp = System.currentTimeMillis();
+        UploadProfile profile = UploadProfile.forCurrentNetwork(context);
+        executor.execute(() -> {
+            File imageFile = spoolFile(postId, IMAGE_SUFFIX);
+            File thumbFile = spoolFile(postId, THUMB_SUFFIX);
+            try {
+                // Keeps the aspect ratio; gallery photos already arrive at this size
+                Bitmap image = BitmapDecoder.scaleToLongEdge(photo, profile.longEdge(longEdge));
+                Bitmap thumb = ImageUtil.createThumbnail(image);
+                // Quality is searched per photo so every report fits the profile's byte budget
+                ImageUtil.Encoded encoded = ImageUtil.encode(image, profile.imageMaxBytes);
+                write(encoded.bytes, imageFile);
+                write(ImageUtil.encode(thumb, profile.thumbMaxBytes).bytes, thumbFile);
+
+                OutboxEntity report = new OutboxEntity();
+                report.postId = postId;
+                report.userId = userId;
+                report.description = description;
+                report.latitude = latitude;
+                report.longitude = longitude;
+                report.timestamp = timestamp;
+                report.imageFile = imageFile.getAbsolutePath();
+                report.thumbFile = thumbFile.getAbsolutePath();
+                report.imageWidth = encoded.width;
+                report.imageHeight = encoded.height;
+                dao.insert(report);
+                if (thumb != image) thumb.recycle();
+                if (image != photo) image.recycle();
+                Log.d(TAG, "Spooled " + postId + " as " + encoded.format + " q" + encoded.quality
+                        + ", " + encoded.bytes.length + " bytes (" + profile.name + ")");
+            } catch (Exception | OutOfMemoryError e) {
+                // Disk full, encoder failure or a photo too big to scale; nothing was queued
+                Log.e(TAG, "Could not spool report " + postId, e);
+                imageFile.delete();
+                thumbFile.delete();
+                UploadWorker.showSaveFailed(context);
+                mainHandler.post(() -> callback.onSpooled(false));
+                return;
+            }
+            mainHandler.post(() -> callback.onSpooled(true));
+            publish();
+            UploadWorker.enqueue(context);
+        });
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+        executor.execute(this::publish);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /** Gives a failed report a fresh set of attempts. */
+    public void retry(String postId) {
+        executor.execute(() -> {
+            dao.setFailure(postId, 0, null);
+            publish();
+            UploadWorker.enqueue(context);
+        });
+    }
+
+    /** Drops a report and its spooled files, for failed reports the user gives up on. */
+    public void discard(String postId) {
+        executor.execute(() -> {
+            dao.delete(postId);
+            spoolFile(postId, IMAGE_SUFFIX).delete();
+            spoolFile(postId, THUMB_SUFFIX).delete();
+            publish();
+        });
+    }
+
+    /** Local thumbnail of a queued report. */
+    public File thumbFile(String postId) {
+        return spoolFile(postId, THUMB_SUFFIX);
+    }
+
+    // --- Used by UploadWorker, on its thread ---
+
+    List<OutboxEntity> pending() {
+        return dao.retryable(MAX_ATTEMPTS);
+    }
+
+    void markUploaded(OutboxEntity report) {
+        dao.delete(report.postId);
+        if (report.imageFile != null) new File(report.imageFile).delete();
+        if (report.thumbFile != null) new File(report.thumbFile).delete();
+        executor.execute(this::publish);
+    }
+
+    void markChunkUploaded(OutboxEntity report, int chunks) {
+        report.chunksUploaded = chunks;
+        dao.setChunksUploaded(report.postId, chunks);
+    }
+
+    /** Returns true when the report has used up its attempts and will not be retried. */
+    boolean markFailed(OutboxEntity report, Exception error) {
+        report.attempts++;
+        dao.recordFailure(report.postId, String.valueOf(error.getMessage()));
+        boolean gaveUp = report.attempts >= MAX_ATTEMPTS;
+        if (gaveUp) executor.execute(this::publish);
+        return gaveUp;
+    }
+
+    // For failures a retry cannot fix, such as a spooled file that is gone
+    void markGivenUp(OutboxEntity report, Exception error) {
+        report.attempts = MAX_ATTEMPTS;
+        dao.setFailure(report.postId, MAX_ATTEMPTS, String.valueOf(error.getMessage()));
+        executor.execute(this::publish);
+    }
+
+    boolean spoolExists(OutboxEntity report) {
+        return report.imageFile != null && new File(report.imageFile).exists()
+                && report.thumbFile != null && new File(report.thumbFile).exists();
+    }
+
+    // Runs on the executor
+    private void publish() {
+        if (listeners.isEmpty()) return;
+        List<Post> posts = new ArrayList<>();
+        Set<String> failed = new HashSet<>();
+        for (OutboxEntity report : dao.oldestFirst()) {
+            if (report.attempts >= MAX_ATTEMPTS) failed.add(report.postId);
+            Post post = new Post(report.postId, report.userId, "You", report.description, null,
+                    report.latitude, report.longitude, report.timestamp);
+            post.isActive = true;
+            post.imageWidth = report.imageWidth;
+            post.imageHeight = report.imageHeight;
+            posts.add(post);
+        }
+        mainHandler.post(() -> {
+            for (Listener listener : listeners) listener.onOutboxChanged(posts, failed);
+        });
+    }
+
+    private File spoolFile(String postId, String suffix) {
+        File dir = new File(context.getFilesDir(), SPOOL_DIR);
+        if (!dir.exists()) dir.mkdirs();
+        return new File(dir, postId + suffix);
+    }
+
+    private static void write(byte[] bytes, File file) throws IOException {
+        if (bytes.length == 0) throw new IOException("Image encoding failed");
+        try (OutputStream out = new FileOutputStream(file)) {
+            out.write(bytes);
+        }
+    }
+}
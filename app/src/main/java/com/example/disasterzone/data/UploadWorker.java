@@ -0,0 +1,271 @@
+package com.example.disasterzone.data;
+
+import android.app.NotificationChannel;
+import android.app.NotificationManager;
+import android.content.Context;
+import android.content.pm.ServiceInfo;
+import android.os.Build;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.core.app.NotificationCompat;
+import androidx.core.app.NotificationManagerCompat;
+import androidx.work.BackoffPolicy;
+import androidx.work.Constraints;
+import androidx.work.ExistingWorkPolicy;
+import androidx.work.ForegroundInfo;
+import androidx.work.NetworkType;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.WorkManager;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.example.disasterzone.R;
+import com.example.disasterzone.model.Post;
+import com.example.disasterzone.model.User;
+import com.example.disasterzone.util.Base64Codec;
+import com.example.disasterzone.util.GeoHash;
+import com.example.disasterzone.util.ImageChunks;
+import com.google.android.gms.tasks.TaskCompletionSource;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.FirebaseDatabase;
+import com.google.firebase.database.MutableData;
+import com.google.firebase.database.Transaction;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drains {@link ReportOutbox} once a network is available. The image goes up first in
+ * acknowledged chunks, with progress kept in the outbox row so a retry resumes where
+ * the last attempt stopped; the thumbnail follows, then the post, which a transaction
+ * only creates if it is not there yet. Everything is written under the push key given
+ * when the report was queued, so repeating a step never undoes what others changed since.
+ * Failed reports stay queued and the work retries with exponential backoff, until a
+ * report runs out of attempts; from then on it waits in the outbox as failed, so it
+ * neither blocks the chain nor retries forever.
+ */
+public class UploadWorker extends Worker {
+
+    private static final String TAG = "UploadWorker";
+    private static final String WORK_NAME = "reportUpload";
+    private static final String CHANNEL_ID = "UPLOAD_CHANNEL";
+    private static final int NOTIFICATION_ID = 998;
+    // Separate id, so the next progress notification does not replace it
+    private static final int SAVE_FAILED_NOTIFICATION_ID = 997;
+    // Database writes wait forever while offline; give up and retry later instead
+    private static final long WRITE_TIMEOUT_S = 60;
+
+    public UploadWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    public static void enqueue(Context context) {
+        Constraints constraints = new Constraints.Builder()
+                .setRequiredNetworkType(NetworkType.CONNECTED)
+                .build();
+        OneTimeWorkRequest request = new OneTimeWorkRequest.Builder(UploadWorker.class)
+                .setConstraints(constraints)
+                .setBackoffCriteria(BackoffPolicy.EXPONENTIAL, 30, TimeUnit.SECONDS)
+                .build();
+        // A run already in progress may have missed the new report, so queue another after it
+        WorkManager.getInstance(context)
+                .enqueueUniqueWork(WORK_NAME, ExistingWorkPolicy.APPEND_OR_REPLACE, request);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        ReportOutbox outbox = ReportOutbox.get(getApplicationContext());
+        List<OutboxEntity> pending = outbox.pending();
+        if (pending.isEmpty()) return Result.success();
+
+        createChannel(getApplicationContext());
+        DatabaseReference root = FirebaseDatabase.getInstance().getReference();
+        int uploaded = 0, retrying = 0, gaveUp = 0;
+        for (OutboxEntity report : pending) {
+            if (isStopped()) return Result.retry();
+            if (!outbox.spoolExists(report)) {
+                // Cleared storage or a half-written spool; no retry brings the photo back
+                Log.w(TAG, "Spooled files of " + report.postId + " are missing");
+                outbox.markGivenUp(report, new IOException("Spooled files are missing"));
+                gaveUp++;
+                continue;
+            }
+            showProgress(uploaded, pending.size(), 0, 0);
+            try {
+                upload(root, outbox, report, uploaded, pending.size());
+                outbox.markUploaded(report);
+                uploaded++;
+            } catch (Exception e) {
+                Log.w(TAG, "Upload of " + report.postId + " failed, attempt " + (report.attempts + 1), e);
+                if (outbox.markFailed(report, e)) {
+                    gaveUp++;
+                } else {
+                    retrying++;
+                }
+            }
+        }
+
+        showResult(uploaded, retrying, gaveUp);
+        return retrying > 0 ? Result.retry() : Result.success();
+    }
+
+    private void upload(DatabaseReference root, ReportOutbox outbox, OutboxEntity report,
+                        int done, int total) throws Exception {
+        String postId = report.postId;
+        String chunksPath = Post.IMAGE_CHUNKS_NODE + "/" + postId;
+        File imageFile = new File(report.imageFile);
+
+        // Image first, one acknowledged chunk at a time; a retry resumes after the last confirmed one
+        ImageChunks.upload(root.child(chunksPath), imageFile, report.chunksUploaded, (confirmed, chunks) -> {
+            outbox.markChunkUploaded(report, confirmed);
+            showProgress(done, total, confirmed, chunks);
+        });
+
+        DataSnapshot profile = Tasks.await(root.child("users").child(report.userId).get(),
+                WRITE_TIMEOUT_S, TimeUnit.SECONDS);
+        String username = "Anonymous";
+        if (profile.exists()) {
+            User user = profile.getValue(User.class);
+            if (user != null) username = user.username;
+        }
+
+        Post post = new Post(postId, report.userId, username, report.description, null,
+                report.latitude, report.longitude, report.timestamp);
+        post.isActive = true;
+        post.endedTimestamp = 0;
+        post.imagePath = chunksPath;
+        post.imageChunks = ImageChunks.chunkCount(imageFile.length());
+        post.imageBytes = (int) imageFile.length();
+        post.thumbPath = Post.THUMBS_NODE + "/" + postId;
+        post.imageWidth = report.imageWidth;
+        post.imageHeight = report.imageHeight;
+        post.geohash = GeoHash.encode(report.latitude, report.longitude, GeoHash.STORED_PRECISION);
+
+        // Thumbnail before the post, so readers never see a post whose image is still arriving
+        Tasks.await(root.child(post.thumbPath).setValue(encodeFile(report.thumbFile)),
+                WRITE_TIMEOUT_S, TimeUnit.SECONDS);
+        publishOnce(root.child("posts").child(postId), post);
+    }
+
+    // An earlier attempt may have published already: a timed-out write still commits, and
+    // the process can die between the ack and markUploaded. Writing the post again would
+    // reset likeCount and ended state others changed since, so it is only created if absent.
+    private static void publishOnce(DatabaseReference postRef, Post post) throws Exception {
+        TaskCompletionSource<Void> result = new TaskCompletionSource<>();
+        postRef.runTransaction(new Transaction.Handler() {
+            @NonNull
+            @Override
+            public Transaction.Result doTransaction(@NonNull MutableData current) {
+                // Left untouched rather than aborted when present: the first run sees the
+                // local cache, and an abort there would never ask the server
+                if (current.getValue() == null) current.setValue(post);
+                return Transaction.success(current);
+            }
+
+            @Override
+            public void onComplete(@Nullable DatabaseError error, boolean committed, @Nullable DataSnapshot snapshot) {
+                if (error != null) {
+                    result.setException(error.toException());
+                } else if (!committed) {
+                    result.setException(new IllegalStateException("Publishing " + post.postId + " did not commit"));
+                } else {
+                    result.setResult(null);
+                }
+            }
+        }, false);
+        Tasks.await(result.getTask(), WRITE_TIMEOUT_S, TimeUnit.SECONDS);
+    }
+
+    // Encoded while reading, so the raw bytes are never held in full
+    private static String encodeFile(String path) throws IOException {
+        File file = new File(path);
+        try (InputStream in = new FileInputStream(file)) {
+            return Base64Codec.encode(in, file.length());
+        }
+    }
+
+    // --- NOTIFICATIONS ---
+
+    // Bar follows the chunks of the current report, indeterminate until its first one lands
+    private void showProgress(int done, int total, int confirmedChunks, int chunks) {
+        NotificationCompat.Builder builder = new NotificationCompat.Builder(getApplicationContext(), CHANNEL_ID)
+                .setSmallIcon(R.drawable.ic_notification)
+                .setContentTitle("Uploading reports")
+                .setContentText((done + 1) + " of " + total)
+                .setProgress(chunks, confirmedChunks, chunks == 0)
+                .setOngoing(true)
+                .setOnlyAlertOnce(true);
+        ForegroundInfo info = Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q
+                ? new ForegroundInfo(NOTIFICATION_ID, builder.build(), ServiceInfo.FOREGROUND_SERVICE_TYPE_DATA_SYNC)
+                : new ForegroundInfo(NOTIFICATION_ID, builder.build());
+        try {
+            // Keeps the process alive for large photos; not allowed from the background on Android 12+
+            setForegroundAsync(info).get();
+        } catch (Exception e) {
+            notify(builder);
+        }
+    }
+
+    private void showResult(int uploaded, int retrying, int gaveUp) {
+        String title, text;
+        if (gaveUp > 0) {
+            title = "Some reports could not be uploaded";
+            text = gaveUp + " failed, open the feed to retry or discard them";
+        } else if (retrying > 0) {
+            title = "Some reports are still queued";
+            text = retrying + " will be retried when the connection improves";
+        } else {
+            title = "Reports posted";
+            text = uploaded + " report(s) uploaded";
+        }
+        NotificationCompat.Builder builder = new NotificationCompat.Builder(getApplicationContext(), CHANNEL_ID)
+                .setSmallIcon(R.drawable.ic_notification)
+                .setContentTitle(title)
+                .setContentText(text)
+                .setAutoCancel(true);
+        notify(builder);
+    }
+
+    // Posted by ReportOutbox when a report could not even be written to disk
+    static void showSaveFailed(Context context) {
+        createChannel(context);
+        NotificationCompat.Builder builder = new NotificationCompat.Builder(context, CHANNEL_ID)
+                .setSmallIcon(R.drawable.ic_notification)
+                .setContentTitle("Report could not be saved")
+                .setContentText("Your report was not queued, please submit it again")
+                .setPriority(NotificationCompat.PRIORITY_HIGH)
+                .setAutoCancel(true);
+        notify(context, SAVE_FAILED_NOTIFICATION_ID, builder);
+    }
+
+    private void notify(NotificationCompat.Builder builder) {
+        notify(getApplicationContext(), NOTIFICATION_ID, builder);
+    }
+
+    private static void notify(Context context, int id, NotificationCompat.Builder builder) {
+        try {
+            NotificationManagerCompat.from(context).notify(id, builder.build());
+        } catch (SecurityException e) {
+            // Notification permission not granted, the upload itself is unaffected
+        }
+    }
+
+    private static void createChannel(Context context) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            NotificationChannel channel = new NotificationChannel(CHANNEL_ID, "Report uploads",
+                    NotificationManager.IMPORTANCE_LOW);
+            channel.setDescription("Progress of reports uploading in the background");
+            context.getSystemService(NotificationManager.class).createNotificationChannel(channel);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.disasterzone.map;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Recomputes clusters on a background thread whenever the zoom or the data changes.
+ * Requests are debounced and only the result of the latest one is delivered.
+ */
+public class ClusterManager {
+
+    public interface Listener {
+        /** Main thread. {@code clusteredIds} are the posts now represented by a badge. */
+        void onClustersChanged(List<GridClusterer.Cluster> clusters, Set<String> clusteredIds);
+    }
+
+    public interface ItemSource {
+        /** Main thread. Returns a snapshot the background thread may read. */
+        List<GridClusterer.Item> snapshot();
+    }
+
+    private static final long DEBOUNCE_MS = 150;
+
+    private final GridClusterer clusterer = new GridClusterer();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final ItemSource source;
+    private final Listener listener;
+
+    private double zoom;
+    private int generation;
+    private final Runnable run = this::runNow;
+
+    public ClusterManager(ItemSource source, Listener listener) {
+        this.source = source;
+        this.listener = listener;
+    }
+
+    public void onZoomChanged(double zoom) {
+        // Clusters only change when the zoom crosses a whole level
+        if (Math.floor(zoom) == Math.floor(this.zoom)) return;
+        this.zoom = zoom;
+        requestUpdate();
+    }
+
+    public void setZoom(double zoom) {
+        this.zoom = zoom;
+    }
+
+    public void requestUpdate() {
+        mainHandler.removeCallbacks(run);
+        mainHandler.postDelayed(run, DEBOUNCE_MS);
+    }
+
+    public void shutdown() {
+        mainHandler.removeCallbacksAndMessages(null);
+        executor.shutdownNow();
+    }
+
+    private void runNow() {
+        if (executor.isShutdown()) return;
+        List<GridClusterer.Item> items = source.snapshot();
+        double level = Math.floor(zoom);
+        int requested = ++generation;
+        executor.execute(() -> {
+            List<GridClusterer.Cluster> clusters = clusterer.cluster(items, level);
+            Set<String> clusteredIds = new HashSet<>();
+            for (GridClusterer.Cluster cluster : clusters) clusteredIds.addAll(cluster.postIds);
+            mainHandler.post(() -> {
+                if (requested == generation) listener.onClustersChanged(clusters, clusteredIds);
+            });
+        });
+    }
+}
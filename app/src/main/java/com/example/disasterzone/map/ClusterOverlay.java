@@ -0,0 +1,125 @@
+package com.example.disasterzone.map;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Point;
+import android.view.MotionEvent;
+
+import org.osmdroid.util.BoundingBox;
+import org.osmdroid.util.GeoPoint;
+import org.osmdroid.views.MapView;
+import org.osmdroid.views.Projection;
+import org.osmdroid.views.overlay.Overlay;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Draws clusters from {@link GridClusterer} as count badges: red for active disasters,
+ * grey for inactive ones, side by side when a cluster has both. Tapping a badge zooms
+ * to the cluster. One overlay for all clusters, paints and labels are prepared up front.
+ */
+public class ClusterOverlay extends Overlay {
+
+    private static final int ACTIVE_COLOR = 0xFFD32F2F;
+    private static final int INACTIVE_COLOR = 0xFF757575;
+
+    private final float radius;
+    private final Paint fillPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint strokePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint textPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Point point = new Point();
+
+    private final List<Badge> badges = new ArrayList<>();
+
+    private static final class Badge {
+        final GridClusterer.Cluster cluster;
+        final GeoPoint position;
+        final String activeLabel;
+        final String inactiveLabel;
+
+        Badge(GridClusterer.Cluster cluster) {
+            this.cluster = cluster;
+            this.position = new GeoPoint(cluster.latitude, cluster.longitude);
+            this.activeLabel = cluster.activeCount > 0 ? String.valueOf(cluster.activeCount) : null;
+            this.inactiveLabel = cluster.inactiveCount > 0 ? String.valueOf(cluster.inactiveCount) : null;
+        }
+    }
+
+    public ClusterOverlay(float density) {
+        radius = 16 * density;
+        fillPaint.setStyle(Paint.Style.FILL);
+        strokePaint.setStyle(Paint.Style.STROKE);
+        strokePaint.setStrokeWidth(2 * density);
+        strokePaint.setColor(0xFFFFFFFF);
+        textPaint.setColor(0xFFFFFFFF);
+        textPaint.setTextSize(13 * density);
+        textPaint.setFakeBoldText(true);
+        textPaint.setTextAlign(Paint.Align.CENTER);
+    }
+
+    public void setClusters(List<GridClusterer.Cluster> clusters) {
+        badges.clear();
+        for (GridClusterer.Cluster cluster : clusters) badges.add(new Badge(cluster));
+    }
+
+    @Override
+    public void draw(Canvas canvas, Projection projection) {
+        if (!isEnabled()) return;
+        int width = canvas.getWidth();
+        int height = canvas.getHeight();
+        float textOffset = (textPaint.descent() + textPaint.ascent()) / 2;
+
+        for (Badge badge : badges) {
+            projection.toPixels(badge.position, point);
+            // Skip badges that are off screen
+            if (point.x < -2 * radius || point.y < -radius || point.x > width + 2 * radius || point.y > height + radius) {
+                continue;
+            }
+
+            boolean both = badge.activeLabel != null && badge.inactiveLabel != null;
+            if (badge.activeLabel != null) {
+                drawBadge(canvas, both ? point.x - radius * 0.8f : point.x, point.y,
+                        ACTIVE_COLOR, badge.activeLabel, textOffset);
+            }
+            if (badge.inactiveLabel != null) {
+                drawBadge(canvas, both ? point.x + radius * 0.8f : point.x, point.y,
+                        INACTIVE_COLOR, badge.inactiveLabel, textOffset);
+            }
+        }
+    }
+
+    private void drawBadge(Canvas canvas, float x, float y, int color, String label, float textOffset) {
+        fillPaint.setColor(color);
+        canvas.drawCircle(x, y, radius, fillPaint);
+        canvas.drawCircle(x, y, radius, strokePaint);
+        canvas.drawText(label, x, y - textOffset, textPaint);
+    }
+
+    @Override
+    public boolean onSingleTapConfirmed(MotionEvent event, MapView mapView) {
+        if (!isEnabled()) return false;
+        Projection projection = mapView.getProjection();
+        for (Badge badge : badges) {
+            projection.toPixels(badge.position, point);
+            float dx = event.getX() - point.x;
+            float dy = event.getY() - point.y;
+            if (Math.abs(dx) <= radius * 1.8f && Math.abs(dy) <= radius) {
+                zoomInto(mapView, badge.cluster);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void zoomInto(MapView mapView, GridClusterer.Cluster cluster) {
+        if (cluster.north - cluster.south < 1e-6 && cluster.east - cluster.west < 1e-6) {
+            // All at the same spot, zooming to the bounds would not separate them
+            mapView.getController().animateTo(new GeoPoint(cluster.latitude, cluster.longitude),
+                    GridClusterer.MAX_CLUSTER_ZOOM, null);
+        } else {
+            BoundingBox bounds = new BoundingBox(cluster.north, cluster.east, cluster.south, cluster.west);
+            mapView.zoomToBoundingBox(bounds, true, (int) (radius * 3));
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.disasterzone.map;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.disasterzone.util.GeoHash;
+import com.google.firebase.database.ChildEventListener;
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.Query;
+import com.google.firebase.database.ValueEventListener;
+
+import org.osmdroid.util.BoundingBox;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Loads posts by geohash cell instead of the whole "posts" node. The visible area plus
+ * a margin is covered with a handful of cells, each one a live range query on
+ * "geohash". Cells stay subscribed while the user pans around and the least recently
+ * needed ones are dropped once more than {@link #MAX_CELLS} are loaded.
+ */
+public class GeoCellLoader {
+
+    public interface Listener {
+        void onPostChanged(@NonNull DataSnapshot snapshot);
+        void onPostRemoved(@NonNull String postId);
+        /** The initial posts of a cell were delivered. */
+        void onCellLoaded(@NonNull String cell);
+        /** The cell is no longer watched, its posts may be dropped unless still covered. */
+        void onCellEvicted(@NonNull String cell);
+        void onError(@NonNull DatabaseError error);
+    }
+
+    private static final long DEBOUNCE_MS = 300;
+    private static final int MAX_CELLS_PER_VIEW = 12;
+    private static final int MAX_CELLS = 48;
+    // Extra area loaded around the viewport, as a fraction of its size on each side
+    private static final double MARGIN = 0.5;
+
+    private final DatabaseReference postsRef;
+    private final Listener listener;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+
+    // Access ordered, so iteration starts at the least recently needed cell
+    private final Map<String, CellQuery> cells = new LinkedHashMap<>(16, 0.75f, true);
+    private BoundingBox pendingArea;
+    private final Runnable refresh = this::refresh;
+
+    private final class CellQuery {
+        final Query query;
+        final ChildEventListener childListener;
+
+        CellQuery(String cell) {
+            query = postsRef.orderByChild("geohash").startAt(cell).endAt(cell + GeoHash.RANGE_END);
+            childListener = new ChildEventListener() {
+                @Override
+                public void onChildAdded(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+                    listener.onPostChanged(snapshot);
+                }
+
+                @Override
+                public void onChildChanged(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+                    listener.onPostChanged(snapshot);
+                }
+
+                @Override
+                public void onChildRemoved(@NonNull DataSnapshot snapshot) {
+                    if (snapshot.getKey() != null) listener.onPostRemoved(snapshot.getKey());
+                }
+
+                @Override
+                public void onChildMoved(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {}
+
+                @Override
+                public void onCancelled(@NonNull DatabaseError error) {
+                    listener.onError(error);
+                }
+            };
+            query.addChildEventListener(childListener);
+
+            // Completes after the initial children were delivered
+            query.addListenerForSingleValueEvent(new ValueEventListener() {
+                @Override
+                public void onDataChange(@NonNull DataSnapshot snapshot) {
+                    listener.onCellLoaded(cell);
+                }
+
+                @Override
+                public void onCancelled(@NonNull DatabaseError error) {}
+            });
+        }
+
+        void stop() {
+            query.removeEventListener(childListener);
+        }
+    }
+
+    public GeoCellLoader(DatabaseReference postsRef, Listener listener) {
+        this.postsRef = postsRef;
+        this.listener = listener;
+    }
+
+    /** Call on every pan or zoom; loading starts once the map has settled. */
+    public void showArea(BoundingBox area) {
+        pendingArea = area;
+        handler.removeCallbacks(refresh);
+        handler.postDelayed(refresh, DEBOUNCE_MS);
+    }
+
+    /** Whether a loaded cell contains this geohash. */
+    public boolean isCovered(@Nullable String geohash) {
+        return coveringCell(geohash) != null;
+    }
+
+    @Nullable
+    private String coveringCell(@Nullable String geohash) {
+        if (geohash == null) return null;
+        for (int length = 1; length <= geohash.length(); length++) {
+            String prefix = geohash.substring(0, length);
+            if (cells.containsKey(prefix)) return prefix;
+        }
+        return null;
+    }
+
+    public void stop() {
+        handler.removeCallbacks(refresh);
+        for (CellQuery cellQuery : cells.values()) cellQuery.stop();
+        cells.clear();
+    }
+
+    private void refresh() {
+        if (pendingArea == null) return;
+        BoundingBox area = pendingArea.increaseByScale((float) (1 + 2 * MARGIN));
+        double north = area.getLatNorth(), south = area.getLatSouth();
+        double east = area.getLonEast(), west = area.getLonWest();
+
+        int precision = GeoHash.precisionFor(north, south, east, west, MAX_CELLS_PER_VIEW);
+        Set<String> wanted = GeoHash.coveringCells(north, south, east, west, precision);
+
+        Set<String> needed = new HashSet<>();
+        for (String cell : wanted) {
+            String loaded = coveringCell(cell);
+            if (loaded == null) {
+                cells.put(cell, new CellQuery(cell));
+                needed.add(cell);
+            } else {
+                cells.get(loaded); // Marks it as recently needed
+                needed.add(loaded);
+            }
+        }
+        evict(needed);
+    }
+
+    private void evict(Set<String> needed) {
+        List<String> evicted = new ArrayList<>();
+        Iterator<Map.Entry<String, CellQuery>> it = cells.entrySet().iterator();
+        while (cells.size() - evicted.size() > MAX_CELLS && it.hasNext()) {
+            Map.Entry<String, CellQuery> entry = it.next();
+            if (needed.contains(entry.getKey())) continue;
+            entry.getValue().stop();
+            evicted.add(entry.getKey());
+        }
+        for (String cell : evicted) {
+            cells.remove(cell);
+            listener.onCellEvicted(cell);
+        }
+    }
+}
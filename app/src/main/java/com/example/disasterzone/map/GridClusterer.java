@@ -0,0 +1,104 @@
+package com.example.disasterzone.map;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Groups disasters that fall into the same square of a screen-space grid at a zoom level.
+ * Positions are projected with Web Mercator like the map tiles, so a cell is always
+ * {@link #CELL_SIZE_PX} wide on screen. Pure Java, safe to run off the main thread.
+ */
+public class GridClusterer {
+
+    public static final int CELL_SIZE_PX = 64;
+    // From this zoom on every disaster is drawn on its own
+    public static final double MAX_CLUSTER_ZOOM = 16;
+
+    private static final int TILE_SIZE = 256;
+    private static final double MAX_LATITUDE = 85.05112878;
+
+    public static final class Item {
+        public final String postId;
+        public final double latitude;
+        public final double longitude;
+        public final boolean active;
+
+        public Item(String postId, double latitude, double longitude, boolean active) {
+            this.postId = postId;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.active = active;
+        }
+    }
+
+    public static final class Cluster {
+        public final List<String> postIds = new ArrayList<>();
+        public int activeCount;
+        public int inactiveCount;
+        // Centroid and bounds, in degrees
+        public double latitude, longitude;
+        public double north = -90, south = 90, east = -180, west = 180;
+
+        public int size() {
+            return postIds.size();
+        }
+
+        void add(Item item) {
+            postIds.add(item.postId);
+            if (item.active) activeCount++; else inactiveCount++;
+            latitude += item.latitude;
+            longitude += item.longitude;
+            north = Math.max(north, item.latitude);
+            south = Math.min(south, item.latitude);
+            east = Math.max(east, item.longitude);
+            west = Math.min(west, item.longitude);
+        }
+
+        void finish() {
+            latitude /= postIds.size();
+            longitude /= postIds.size();
+        }
+    }
+
+    /** Only groups of two or more are returned; everything else stays a single marker. */
+    public List<Cluster> cluster(List<Item> items, double zoom) {
+        if (zoom >= MAX_CLUSTER_ZOOM || items.size() < 2) return Collections.emptyList();
+
+        double worldSize = TILE_SIZE * Math.pow(2, zoom);
+        Map<Long, Cluster> cells = new HashMap<>();
+        for (Item item : items) {
+            long cellX = (long) Math.floor(mercatorX(item.longitude) * worldSize / CELL_SIZE_PX);
+            long cellY = (long) Math.floor(mercatorY(item.latitude) * worldSize / CELL_SIZE_PX);
+            long key = (cellX << 32) ^ (cellY & 0xffffffffL);
+
+            Cluster cluster = cells.get(key);
+            if (cluster == null) {
+                cluster = new Cluster();
+                cells.put(key, cluster);
+            }
+            cluster.add(item);
+        }
+
+        List<Cluster> clusters = new ArrayList<>();
+        for (Cluster cluster : cells.values()) {
+            if (cluster.size() < 2) continue;
+            cluster.finish();
+            clusters.add(cluster);
+        }
+        return clusters;
+    }
+
+    // 0..1 across the world, west to east
+    static double mercatorX(double longitude) {
+        return (longitude + 180) / 360;
+    }
+
+    // 0..1 across the world, north to south
+    static double mercatorY(double latitude) {
+        double lat = Math.toRadians(Math.max(-MAX_LATITUDE, Math.min(MAX_LATITUDE, latitude)));
+        return (1 - Math.log(Math.tan(lat) + 1 / Math.cos(lat)) / Math.PI) / 2;
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.disasterzone.map;
+
+import java.util.Arrays;
+
+/**
+ * Kernel density of reports over a patch of the map at one zoom level. Cells are
+ * {@link #CELL_PX} screen pixels in Web Mercator, so the grid lines up with the map
+ * tiles at that zoom. Points are splatted with a quartic kernel and can be taken out
+ * again by splatting a negative weight, which keeps updates O(kernel size).
+ */
+final class HeatmapGrid {
+
+    static final int CELL_PX = 6;
+    // Kernel reaches ~30 px around each report
+    static final int RADIUS_CELLS = 5;
+    static final int MAX_CELLS_PER_SIDE = 1024;
+
+    private static final int TILE_SIZE = 256;
+    private static final float[] KERNEL = buildKernel();
+    private static final int[] PALETTE = buildPalette();
+
+    final int zoom;
+    final int cols;
+    final int rows;
+    private final long originCol;
+    private final long originRow;
+    private final double worldCells;
+    private final float[] density;
+
+    /** Covers the given bounds at {@code zoom}, capped at {@link #MAX_CELLS_PER_SIDE} cells a side. */
+    HeatmapGrid(int zoom, double north, double west, double south, double east) {
+        this.zoom = zoom;
+        this.worldCells = TILE_SIZE * Math.pow(2, zoom) / CELL_PX;
+        long left = (long) Math.floor(GridClusterer.mercatorX(west) * worldCells);
+        long right = (long) Math.ceil(GridClusterer.mercatorX(east) * worldCells);
+        long top = (long) Math.floor(GridClusterer.mercatorY(north) * worldCells);
+        long bottom = (long) Math.ceil(GridClusterer.mercatorY(south) * worldCells);
+        this.cols = (int) Math.max(1, Math.min(MAX_CELLS_PER_SIDE, right - left));
+        this.rows = (int) Math.max(1, Math.min(MAX_CELLS_PER_SIDE, bottom - top));
+        // Keep the grid centered on the requested area when it had to be capped
+        this.originCol = (left + right) / 2 - cols / 2;
+        this.originRow = (top + bottom) / 2 - rows / 2;
+        this.density = new float[cols * rows];
+    }
+
+    boolean covers(double north, double west, double south, double east) {
+        return GridClusterer.mercatorX(west) * worldCells >= originCol
+                && GridClusterer.mercatorX(east) * worldCells <= originCol + cols
+                && GridClusterer.mercatorY(north) * worldCells >= originRow
+                && GridClusterer.mercatorY(south) * worldCells <= originRow + rows;
+    }
+
+    /** Adds a report; a negative weight takes a previously added one out again. */
+    void add(double latitude, double longitude, float weight) {
+        long col = (long) Math.floor(GridClusterer.mercatorX(longitude) * worldCells) - originCol;
+        long row = (long) Math.floor(GridClusterer.mercatorY(latitude) * worldCells) - originRow;
+        if (col < -RADIUS_CELLS || col >= cols + RADIUS_CELLS || row < -RADIUS_CELLS || row >= rows + RADIUS_CELLS) return;
+
+        int size = 2 * RADIUS_CELLS + 1;
+        for (int dy = -RADIUS_CELLS; dy <= RADIUS_CELLS; dy++) {
+            long y = row + dy;
+            if (y < 0 || y >= rows) continue;
+            int rowOffset = (int) y * cols;
+            int kernelOffset = (dy + RADIUS_CELLS) * size + RADIUS_CELLS;
+            for (int dx = -RADIUS_CELLS; dx <= RADIUS_CELLS; dx++) {
+                long x = col + dx;
+                if (x < 0 || x >= cols) continue;
+                float value = density[rowOffset + (int) x] + weight * KERNEL[kernelOffset + dx];
+                // Removing in a different order can leave rounding dust below zero
+                density[rowOffset + (int) x] = value < 1e-6f ? 0 : value;
+            }
+        }
+    }
+
+    /** Colors relative to the densest cell into {@code pixels} (cols * rows, ARGB). */
+    void colorize(int[] pixels) {
+        float max = 0;
+        for (float value : density) if (value > max) max = value;
+        if (max <= 0) {
+            Arrays.fill(pixels, 0, density.length, 0);
+            return;
+        }
+        float scale = 1f / max;
+        for (int i = 0; i < density.length; i++) {
+            // Square root lifts sparse areas so single reports stay visible next to hotspots
+            int level = (int) (Math.sqrt(density[i] * scale) * (PALETTE.length - 1));
+            pixels[i] = PALETTE[level];
+        }
+    }
+
+    double north() {
+        return latitudeOf(originRow);
+    }
+
+    double south() {
+        return latitudeOf(originRow + rows);
+    }
+
+    double west() {
+        return originCol / worldCells * 360 - 180;
+    }
+
+    double east() {
+        return (originCol + cols) / worldCells * 360 - 180;
+    }
+
+    private double latitudeOf(long row) {
+        double y = row / worldCells;
+        return Math.toDegrees(Math.atan(Math.sinh(Math.PI * (1 - 2 * y))));
+    }
+
+    // Quartic (biweight) kernel, 1 at the center and 0 at the radius
+    private static float[] buildKernel() {
+        int size = 2 * RADIUS_CELLS + 1;
+        float[] kernel = new float[size * size];
+        double r2 = (RADIUS_CELLS + 0.5) * (RADIUS_CELLS + 0.5);
+        for (int dy = -RADIUS_CELLS; dy <= RADIUS_CELLS; dy++) {
+            for (int dx = -RADIUS_CELLS; dx <= RADIUS_CELLS; dx++) {
+                double t = 1 - (dx * dx + dy * dy) / r2;
+                kernel[(dy + RADIUS_CELLS) * size + dx + RADIUS_CELLS] = t > 0 ? (float) (t * t) : 0;
+            }
+        }
+        return kernel;
+    }
+
+    // Transparent through green and yellow to red, more opaque as density rises
+    private static int[] buildPalette() {
+        float[][] stops = {
+                // position, alpha, red, green, blue
+                {0.00f, 0, 0, 200, 0},
+                {0.15f, 90, 60, 200, 0},
+                {0.50f, 160, 255, 220, 0},
+                {1.00f, 210, 211, 47, 47},
+        };
+        int[] palette = new int[256];
+        for (int i = 0; i < palette.length; i++) {
+            float t = i / 255f;
+            int s = 1;
+            while (s < stops.length - 1 && t > stops[s][0]) s++;
+            float[] a = stops[s - 1], b = stops[s];
+            float f = (t - a[0]) / (b[0] - a[0]);
+            int alpha = Math.round(a[1] + (b[1] - a[1]) * f);
+            int red = Math.round(a[2] + (b[2] - a[2]) * f);
+            int green = Math.round(a[3] + (b[3] - a[3]) * f);
+            int blue = Math.round(a[4] + (b[4] - a[4]) * f);
+            palette[i] = alpha << 24 | red << 16 | green << 8 | blue;
+        }
+        return palette;
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.disasterzone.map;
+
+import android.graphics.Bitmap;
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Keeps a density grid per zoom level on a background thread and renders the one for
+ * the current zoom into a bitmap. Reports are added to and removed from the cached
+ * grids in place; a grid is only rebuilt from all reports when the view leaves it or
+ * the recency weights are refreshed. Newer reports weigh more, halving every
+ * {@link #setHalfLife half-life} down to a floor.
+ */
+public class HeatmapManager {
+
+    public interface Listener {
+        /** Main thread. The bitmap covers the given bounds. */
+        void onHeatmap(Bitmap bitmap, double north, double west, double south, double east);
+    }
+
+    public static final long DEFAULT_HALF_LIFE_MS = 6 * 60 * 60 * 1000L;
+
+    private static final long DEBOUNCE_MS = 200;
+    // Weights drift as reports age, refresh them now and then
+    private static final long REWEIGH_MS = 15 * 60 * 1000L;
+    private static final int MAX_ZOOM = 18;
+    private static final int CACHED_LEVELS = 3;
+    // Extra area rendered around the view so panning reuses the grid
+    private static final double MARGIN = 0.5;
+    private static final float MIN_WEIGHT = 0.2f;
+
+    private static final class Report {
+        final double latitude;
+        final double longitude;
+        final long timestamp;
+        float weight;
+
+        Report(double latitude, double longitude, long timestamp) {
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.timestamp = timestamp;
+        }
+    }
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Listener listener;
+
+    // Background thread only
+    private final Map<String, Report> reports = new HashMap<>();
+    private final LinkedHashMap<Integer, HeatmapGrid> grids = new LinkedHashMap<>(CACHED_LEVELS, 0.75f, true);
+    private long halfLifeMs = DEFAULT_HALF_LIFE_MS;
+    private long weighedAt;
+    private int[] pixels = new int[0];
+
+    // Main thread only
+    private boolean enabled;
+    private double north, west, south, east, zoom;
+    private int generation;
+    private final Runnable render = this::renderNow;
+
+    public HeatmapManager(Listener listener) {
+        this.listener = listener;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        if (enabled) requestRender();
+    }
+
+    public void setViewport(double north, double west, double south, double east, double zoom) {
+        this.north = north;
+        this.west = west;
+        this.south = south;
+        this.east = east;
+        this.zoom = zoom;
+        requestRender();
+    }
+
+    public void setHalfLife(long halfLifeMs) {
+        executor.execute(() -> {
+            this.halfLifeMs = halfLifeMs;
+            weighedAt = 0;
+        });
+        requestRender();
+    }
+
+    public void put(String postId, double latitude, double longitude, long timestamp) {
+        if (executor.isShutdown()) return;
+        executor.execute(() -> {
+            Report report = new Report(latitude, longitude, timestamp);
+            report.weight = weightOf(timestamp, System.currentTimeMillis());
+            Report old = reports.put(postId, report);
+            for (HeatmapGrid grid : grids.values()) {
+                if (old != null) grid.add(old.latitude, old.longitude, -old.weight);
+                grid.add(latitude, longitude, report.weight);
+            }
+        });
+        requestRender();
+    }
+
+    public void remove(String postId) {
+        if (executor.isShutdown()) return;
+        executor.execute(() -> {
+            Report old = reports.remove(postId);
+            if (old == null) return;
+            for (HeatmapGrid grid : grids.values()) grid.add(old.latitude, old.longitude, -old.weight);
+        });
+        requestRender();
+    }
+
+    public void shutdown() {
+        mainHandler.removeCallbacksAndMessages(null);
+        executor.shutdownNow();
+    }
+
+    private void requestRender() {
+        if (!enabled) return;
+        mainHandler.removeCallbacks(render);
+        mainHandler.postDelayed(render, DEBOUNCE_MS);
+    }
+
+    private void renderNow() {
+        if (!enabled || executor.isShutdown() || north == south) return;
+        int level = (int) Math.max(0, Math.min(MAX_ZOOM, Math.floor(zoom)));
+        double n = north, w = west, s = south, e = east;
+        int requested = ++generation;
+
+        executor.execute(() -> {
+            long now = System.currentTimeMillis();
+            if (now - weighedAt > REWEIGH_MS) reweigh(now);
+
+            HeatmapGrid grid = grids.get(level);
+            if (grid == null || !grid.covers(n, w, s, e)) {
+                double latMargin = (n - s) * MARGIN, lonMargin = (e - w) * MARGIN;
+                grid = new HeatmapGrid(level, Math.min(85, n + latMargin), Math.max(-180, w - lonMargin),
+                        Math.max(-85, s - latMargin), Math.min(180, e + lonMargin));
+                for (Report report : reports.values()) grid.add(report.latitude, report.longitude, report.weight);
+                grids.put(level, grid);
+                trimCache();
+            }
+
+            int size = grid.cols * grid.rows;
+            if (pixels.length < size) pixels = new int[size];
+            grid.colorize(pixels);
+            Bitmap bitmap = Bitmap.createBitmap(pixels, 0, grid.cols, grid.cols, grid.rows, Bitmap.Config.ARGB_8888);
+            double gn = grid.north(), gw = grid.west(), gs = grid.south(), ge = grid.east();
+            mainHandler.post(() -> {
+                if (requested == generation && enabled) {
+                    listener.onHeatmap(bitmap, gn, gw, gs, ge);
+                } else {
+                    bitmap.recycle();
+                }
+            });
+        });
+    }
+
+    // New weights for every report; the cached grids were built with the old ones
+    private void reweigh(long now) {
+        for (Report report : reports.values()) report.weight = weightOf(report.timestamp, now);
+        grids.clear();
+        weighedAt = now;
+    }
+
+    private float weightOf(long timestamp, long now) {
+        if (halfLifeMs <= 0) return 1f;
+        double age = Math.max(0, now - timestamp);
+        float recency = (float) Math.pow(0.5, age / halfLifeMs);
+        return MIN_WEIGHT + (1 - MIN_WEIGHT) * recency;
+    }
+
+    private void trimCache() {
+        Iterator<Integer> it = grids.keySet().iterator();
+        while (grids.size() > CACHED_LEVELS && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+}
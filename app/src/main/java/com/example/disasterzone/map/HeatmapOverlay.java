@@ -0,0 +1,53 @@
+package com.example.disasterzone.map;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Point;
+import android.graphics.RectF;
+
+import org.osmdroid.util.GeoPoint;
+import org.osmdroid.views.Projection;
+import org.osmdroid.views.overlay.Overlay;
+
+/**
+ * Draws the latest heatmap bitmap from {@link HeatmapManager}, stretched over the
+ * bounds it was rendered for. Between renders the same bitmap is reused every frame,
+ * scaled with the map while zooming.
+ */
+public class HeatmapOverlay extends Overlay {
+
+    private final Paint paint = new Paint(Paint.FILTER_BITMAP_FLAG);
+    private final GeoPoint northWest = new GeoPoint(0.0, 0.0);
+    private final GeoPoint southEast = new GeoPoint(0.0, 0.0);
+    private final Point topLeft = new Point();
+    private final Point bottomRight = new Point();
+    private final RectF target = new RectF();
+    private Bitmap bitmap;
+
+    public HeatmapOverlay() {
+        setEnabled(false);
+    }
+
+    /** Main thread. Takes ownership of the bitmap and recycles the previous one. */
+    public void setBitmap(Bitmap bitmap, double north, double west, double south, double east) {
+        if (this.bitmap != null) this.bitmap.recycle();
+        this.bitmap = bitmap;
+        northWest.setCoords(north, west);
+        southEast.setCoords(south, east);
+    }
+
+    public void clear() {
+        if (bitmap != null) bitmap.recycle();
+        bitmap = null;
+    }
+
+    @Override
+    public void draw(Canvas canvas, Projection projection) {
+        if (bitmap == null || bitmap.isRecycled()) return;
+        projection.toPixels(northWest, topLeft);
+        projection.toPixels(southEast, bottomRight);
+        target.set(topLeft.x, topLeft.y, bottomRight.x, bottomRight.y);
+        canvas.drawBitmap(bitmap, null, target, paint);
+    }
+}
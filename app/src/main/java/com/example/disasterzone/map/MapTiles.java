@@ -0,0 +1,74 @@
+package com.example.disasterzone.map;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import androidx.annotation.Nullable;
+
+import com.example.disasterzone.BuildConfig;
+
+import org.osmdroid.config.Configuration;
+import org.osmdroid.config.IConfigurationProvider;
+import org.osmdroid.tileprovider.tilesource.OnlineTileSourceBase;
+import org.osmdroid.tileprovider.tilesource.TileSourceFactory;
+import org.osmdroid.tileprovider.tilesource.XYTileSource;
+import org.osmdroid.util.GeoPoint;
+
+import java.io.File;
+
+/**
+ * Tile source and tile cache shared by the map screen and {@link TilePrefetchWorker},
+ * so tiles fetched in the background are the ones the map looks up offline.
+ */
+public class MapTiles {
+
+    // osmdroid trims the cache back to TRIM once it grows past MAX, oldest tiles first
+    public static final long CACHE_MAX_BYTES = 200L * 1024 * 1024;
+    public static final long CACHE_TRIM_BYTES = 160L * 1024 * 1024;
+
+    private static final String PREFS = "DisasterPrefs";
+    private static final String KEY_LAST_LAT = "lastKnownLat";
+    private static final String KEY_LAST_LON = "lastKnownLon";
+
+    public static void configure(Context context) {
+        IConfigurationProvider config = Configuration.getInstance();
+        config.setUserAgentValue(context.getPackageName());
+        // App-private storage, no permission needed and not wiped like the cache dir
+        File base = new File(context.getFilesDir(), "osmdroid");
+        config.setOsmdroidBasePath(base);
+        config.setOsmdroidTileCache(new File(base, "tiles"));
+        config.setTileFileSystemCacheMaxBytes(CACHE_MAX_BYTES);
+        config.setTileFileSystemCacheTrimBytes(CACHE_TRIM_BYTES);
+    }
+
+    /** The tile server set for this build, OpenStreetMap unless overridden. */
+    public static OnlineTileSourceBase source() {
+        return sourceFor(BuildConfig.TILE_SERVER_URL);
+    }
+
+    /**
+     * Tiles from {@code baseUrl} ({@code .../{z}/{x}/{y}.png}); null or empty means OpenStreetMap,
+     * whose usage policy rules out bulk downloads, so only a mirror gets prefetched.
+     */
+    public static OnlineTileSourceBase sourceFor(@Nullable String baseUrl) {
+        if (baseUrl == null || baseUrl.isEmpty()) return TileSourceFactory.MAPNIK;
+        if (!baseUrl.endsWith("/")) baseUrl += "/";
+        return new XYTileSource("DisasterZoneTiles", 0, 19, 256, ".png", new String[]{baseUrl});
+    }
+
+    public static void saveLastLocation(Context context, double latitude, double longitude) {
+        context.getSharedPreferences(PREFS, Context.MODE_PRIVATE).edit()
+                .putString(KEY_LAST_LAT, String.valueOf(latitude))
+                .putString(KEY_LAST_LON, String.valueOf(longitude))
+                .apply();
+    }
+
+    @Nullable
+    public static GeoPoint lastLocation(Context context) {
+        SharedPreferences prefs = context.getSharedPreferences(PREFS, Context.MODE_PRIVATE);
+        String lat = prefs.getString(KEY_LAST_LAT, null);
+        String lon = prefs.getString(KEY_LAST_LON, null);
+        if (lat == null || lon == null) return null;
+        return new GeoPoint(Double.parseDouble(lat), Double.parseDouble(lon));
+    }
+}
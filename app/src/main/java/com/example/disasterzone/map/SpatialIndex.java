@@ -0,0 +1,225 @@
+package com.example.disasterzone.map;
+
+import com.example.disasterzone.util.GeoUtil;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * In-memory point index for "what is near me" questions. Points are bucketed in a
+ * fixed lat/lon grid, so inserts, moves and removals are O(1) and queries only visit
+ * the buckets around the query point. Candidates pass a cheap bounding-box test
+ * before the exact haversine distance. Not thread-safe; use it from one thread.
+ */
+public class SpatialIndex {
+
+    // ~5.5 km per bucket at the equator, a few buckets cover typical alert radii
+    public static final double DEFAULT_CELL_DEGREES = 0.05;
+
+    public static final class Hit {
+        public final String id;
+        public final double latitude;
+        public final double longitude;
+        public final double distanceKm;
+
+        Hit(Entry entry, double distanceKm) {
+            this.id = entry.id;
+            this.latitude = entry.latitude;
+            this.longitude = entry.longitude;
+            this.distanceKm = distanceKm;
+        }
+    }
+
+    private static final class Entry {
+        final String id;
+        double latitude;
+        double longitude;
+        long cell;
+
+        Entry(String id) {
+            this.id = id;
+        }
+    }
+
+    private static final Comparator<Hit> BY_DISTANCE = (a, b) -> Double.compare(a.distanceKm, b.distanceKm);
+
+    private final double cellDegrees;
+    private final long columns;
+    private final Map<Long, List<Entry>> buckets = new HashMap<>();
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    public SpatialIndex() {
+        this(DEFAULT_CELL_DEGREES);
+    }
+
+    public SpatialIndex(double cellDegrees) {
+        this.cellDegrees = cellDegrees;
+        this.columns = (long) Math.ceil(360 / cellDegrees);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public boolean contains(String id) {
+        return entries.containsKey(id);
+    }
+
+    /** Adds the point or moves it if the id is already indexed. */
+    public void put(String id, double latitude, double longitude) {
+        long cell = cellOf(latitude, longitude);
+        Entry entry = entries.get(id);
+        if (entry == null) {
+            entry = new Entry(id);
+            entries.put(id, entry);
+            bucket(cell).add(entry);
+        } else if (entry.cell != cell) {
+            removeFromBucket(entry);
+            bucket(cell).add(entry);
+        }
+        entry.latitude = latitude;
+        entry.longitude = longitude;
+        entry.cell = cell;
+    }
+
+    public boolean remove(String id) {
+        Entry entry = entries.remove(id);
+        if (entry == null) return false;
+        removeFromBucket(entry);
+        return true;
+    }
+
+    public void clear() {
+        entries.clear();
+        buckets.clear();
+    }
+
+    /** Every point within {@code radiusKm}, nearest first. */
+    public List<Hit> withinRadius(double latitude, double longitude, double radiusKm) {
+        double latDelta = GeoUtil.latitudeDelta(radiusKm);
+        double lonDelta = GeoUtil.longitudeDelta(radiusKm, Math.abs(latitude) + latDelta);
+        double south = latitude - latDelta, north = latitude + latDelta;
+
+        List<Hit> hits = new ArrayList<>();
+        long rowStart = row(south), rowEnd = row(north);
+        long colStart = col(longitude - lonDelta);
+        long colEnd = Math.min(colStart + columns - 1, colStart + (long) Math.ceil(2 * lonDelta / cellDegrees) + 1);
+        for (long row = rowStart; row <= rowEnd; row++) {
+            for (long col = colStart; col <= colEnd; col++) {
+                List<Entry> bucket = buckets.get(key(row, wrapCol(col)));
+                if (bucket == null) continue;
+                for (Entry e : bucket) {
+                    // Bounding box first, haversine only for what is left
+                    if (e.latitude < south || e.latitude > north) continue;
+                    double dLon = Math.abs(e.longitude - longitude);
+                    if (Math.min(dLon, 360 - dLon) > lonDelta) continue;
+                    double distance = GeoUtil.distanceKm(latitude, longitude, e.latitude, e.longitude);
+                    if (distance <= radiusKm) hits.add(new Hit(e, distance));
+                }
+            }
+        }
+        Collections.sort(hits, BY_DISTANCE);
+        return hits;
+    }
+
+    /** The {@code k} nearest points, nearest first. */
+    public List<Hit> nearest(double latitude, double longitude, int k) {
+        if (k <= 0 || entries.isEmpty()) return new ArrayList<>();
+
+        // Max-heap of the best k so far
+        PriorityQueue<Hit> best = new PriorityQueue<>(k, Collections.reverseOrder(BY_DISTANCE));
+        long centerRow = row(latitude), centerCol = col(longitude);
+        int visited = 0;
+
+        for (long ring = 0; visited < entries.size(); ring++) {
+            // Everything outside the rings searched so far is at least this far away
+            if (best.size() == k && best.peek().distanceKm < ringDistanceKm(ring, latitude)) break;
+            // Far from everything: once a ring covers more cells than are occupied,
+            // walking the occupied buckets is cheaper than walking empty ones
+            if (8 * ring > buckets.size() || 2 * ring + 1 >= columns) {
+                best.clear();
+                for (Entry e : entries.values()) {
+                    offer(best, k, e, GeoUtil.distanceKm(latitude, longitude, e.latitude, e.longitude));
+                }
+                break;
+            }
+
+            for (long row = centerRow - ring; row <= centerRow + ring; row++) {
+                boolean edgeRow = row == centerRow - ring || row == centerRow + ring;
+                long step = edgeRow ? 1 : Math.max(1, 2 * ring);
+                for (long col = centerCol - ring; col <= centerCol + ring; col += step) {
+                    List<Entry> bucket = buckets.get(key(row, wrapCol(col)));
+                    if (bucket == null) continue;
+                    visited += bucket.size();
+                    for (Entry e : bucket) {
+                        offer(best, k, e, GeoUtil.distanceKm(latitude, longitude, e.latitude, e.longitude));
+                    }
+                }
+            }
+        }
+
+        List<Hit> hits = new ArrayList<>(best);
+        Collections.sort(hits, BY_DISTANCE);
+        return hits;
+    }
+
+    private static void offer(PriorityQueue<Hit> best, int k, Entry entry, double distance) {
+        if (best.size() < k) {
+            best.add(new Hit(entry, distance));
+        } else if (distance < best.peek().distanceKm) {
+            best.poll();
+            best.add(new Hit(entry, distance));
+        }
+    }
+
+    // Lower bound for the distance to any bucket in this ring or beyond
+    private double ringDistanceKm(long ring, double latitude) {
+        if (ring == 0) return 0;
+        double gap = (ring - 1) * cellDegrees;
+        double widestLatitude = Math.min(90, Math.abs(latitude) + gap + cellDegrees);
+        double lonKm = GeoUtil.KM_PER_DEGREE * Math.cos(Math.toRadians(widestLatitude));
+        return gap * Math.min(GeoUtil.KM_PER_DEGREE, lonKm);
+    }
+
+    private List<Entry> bucket(long cell) {
+        List<Entry> bucket = buckets.get(cell);
+        if (bucket == null) {
+            bucket = new ArrayList<>();
+            buckets.put(cell, bucket);
+        }
+        return bucket;
+    }
+
+    private void removeFromBucket(Entry entry) {
+        List<Entry> bucket = buckets.get(entry.cell);
+        if (bucket == null) return;
+        bucket.remove(entry);
+        if (bucket.isEmpty()) buckets.remove(entry.cell);
+    }
+
+    private long cellOf(double latitude, double longitude) {
+        return key(row(latitude), col(longitude));
+    }
+
+    private long row(double latitude) {
+        return (long) Math.floor((latitude + 90) / cellDegrees);
+    }
+
+    private long col(double longitude) {
+        return wrapCol((long) Math.floor((longitude + 180) / cellDegrees));
+    }
+
+    // Longitude wraps around the antimeridian
+    private long wrapCol(long col) {
+        return ((col % columns) + columns) % columns;
+    }
+
+    private static long key(long row, long col) {
+        return (row << 32) | (col & 0xffffffffL);
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.disasterzone.map;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.work.Constraints;
+import androidx.work.Data;
+import androidx.work.ExistingPeriodicWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.PeriodicWorkRequest;
+import androidx.work.WorkManager;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.example.disasterzone.data.LocalDatabase;
+import com.example.disasterzone.data.PostEntity;
+import com.example.disasterzone.util.GeoUtil;
+
+import org.osmdroid.tileprovider.cachemanager.CacheManager;
+import org.osmdroid.tileprovider.modules.SqlTileWriter;
+import org.osmdroid.tileprovider.tilesource.OnlineTileSourceBase;
+import org.osmdroid.util.BoundingBox;
+import org.osmdroid.util.GeoPoint;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Downloads map tiles around the user's last known location and every active disaster
+ * into osmdroid's tile cache, so the map still draws when the network drops on site.
+ * Runs on unmetered networks while charging. Tiles already cached are skipped and the
+ * cache is trimmed back to its budget afterwards. Only runs against a tile server whose
+ * policy allows bulk downloads, i.e. a mirror set with -PtileServerUrl; the OpenStreetMap
+ * servers forbid it, so with the default source this does nothing.
+ */
+public class TilePrefetchWorker extends Worker {
+
+    public static final String KEY_MIN_ZOOM = "minZoom";
+    public static final String KEY_MAX_ZOOM = "maxZoom";
+    public static final String KEY_RADIUS_KM = "radiusKm";
+    public static final String KEY_MAX_TILES = "maxTiles";
+    // Overrides the build's tile server, e.g. a local stand-in in tests
+    public static final String KEY_TILE_URL = "tileUrl";
+
+    public static final String KEY_DOWNLOADED = "downloaded";
+    public static final String KEY_FAILED = "failed";
+
+    public static final int DEFAULT_MIN_ZOOM = 12;
+    public static final int DEFAULT_MAX_ZOOM = 16;
+    public static final double DEFAULT_RADIUS_KM = 2.0;
+    // Roughly half the cache budget at ~20 KB a tile, leaves room for normal browsing
+    public static final int DEFAULT_MAX_TILES = (int) (MapTiles.CACHE_TRIM_BYTES / 2 / (20 * 1024));
+
+    private static final String TAG = "TilePrefetchWorker";
+    private static final String WORK_NAME = "tilePrefetch";
+    private static final int MAX_AREAS = 100;
+
+    public TilePrefetchWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    public static void schedule(Context context) {
+        Constraints constraints = new Constraints.Builder()
+                .setRequiredNetworkType(NetworkType.UNMETERED)
+                .setRequiresCharging(true)
+                .build();
+        PeriodicWorkRequest request = new PeriodicWorkRequest.Builder(TilePrefetchWorker.class, 12, TimeUnit.HOURS)
+                .setConstraints(constraints)
+                .build();
+        WorkManager.getInstance(context)
+                .enqueueUniquePeriodicWork(WORK_NAME, ExistingPeriodicWorkPolicy.KEEP, request);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        Context context = getApplicationContext();
+        MapTiles.configure(context);
+
+        Data input = getInputData();
+        int minZoom = input.getInt(KEY_MIN_ZOOM, DEFAULT_MIN_ZOOM);
+        int maxZoom = input.getInt(KEY_MAX_ZOOM, DEFAULT_MAX_ZOOM);
+        double radiusKm = input.getDouble(KEY_RADIUS_KM, DEFAULT_RADIUS_KM);
+        int maxTiles = input.getInt(KEY_MAX_TILES, DEFAULT_MAX_TILES);
+        String tileUrl = input.getString(KEY_TILE_URL);
+        OnlineTileSourceBase tileSource = tileUrl != null ? MapTiles.sourceFor(tileUrl) : MapTiles.source();
+        if (!tileSource.getTileSourcePolicy().acceptsBulkDownload()) {
+            Log.i(TAG, tileSource.name() + " does not allow bulk downloads, skipping prefetch");
+            return Result.success(new Data.Builder()
+                    .putInt(KEY_DOWNLOADED, 0)
+                    .putInt(KEY_FAILED, 0)
+                    .build());
+        }
+
+        // The user's surroundings first, then disasters newest first
+        List<GeoPoint> centers = new ArrayList<>();
+        GeoPoint last = MapTiles.lastLocation(context);
+        if (last != null) centers.add(last);
+        for (PostEntity post : LocalDatabase.get(context).posts().newestActive(MAX_AREAS)) {
+            if (post.latitude != 0 || post.longitude != 0) {
+                centers.add(new GeoPoint(post.latitude, post.longitude));
+            }
+        }
+
+        SqlTileWriter writer = new SqlTileWriter();
+        CacheManager cacheManager = new CacheManager(tileSource, writer, minZoom, maxZoom);
+        Set<Long> seen = new HashSet<>();
+        int downloaded = 0;
+        int failed = 0;
+        try {
+            for (GeoPoint center : centers) {
+                for (Long tile : CacheManager.getTilesCoverage(areaAround(center, radiusKm), minZoom, maxZoom)) {
+                    if (isStopped()) return Result.retry();
+                    if (downloaded >= maxTiles) break;
+                    if (!seen.add(tile) || writer.exists(tileSource, tile)) continue;
+
+                    if (cacheManager.loadTile(tileSource, tile)) {
+                        downloaded++;
+                    } else {
+                        failed++;
+                    }
+                }
+            }
+            writer.runCleanupOperation();
+        } finally {
+            writer.onDetach();
+        }
+
+        Log.i(TAG, "Prefetched " + downloaded + " tiles around " + centers.size() + " places, " + failed + " failed");
+        Data output = new Data.Builder()
+                .putInt(KEY_DOWNLOADED, downloaded)
+                .putInt(KEY_FAILED, failed)
+                .build();
+        // Nothing came through, the server or network is likely down
+        if (downloaded == 0 && failed > 0) return Result.retry();
+        return Result.success(output);
+    }
+
+    private static BoundingBox areaAround(GeoPoint center, double radiusKm) {
+        double latDelta = GeoUtil.latitudeDelta(radiusKm);
+        double lonDelta = GeoUtil.longitudeDelta(radiusKm, center.getLatitude());
+        return new BoundingBox(
+                Math.min(85, center.getLatitude() + latDelta),
+                Math.min(180, center.getLongitude() + lonDelta),
+                Math.max(-85, center.getLatitude() - latDelta),
+                Math.max(-180, center.getLongitude() - lonDelta));
+    }
+}
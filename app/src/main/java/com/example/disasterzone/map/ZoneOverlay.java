@@ -0,0 +1,126 @@
+package com.example.disasterzone.map;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Point;
+
+import org.osmdroid.util.GeoPoint;
+import org.osmdroid.views.Projection;
+import org.osmdroid.views.overlay.Overlay;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Draws the 1 km zone around every disaster in one pass: only the centers are
+ * projected, the radius is converted to pixels once per frame, zones off screen are
+ * skipped and the paints are shared, so a frame allocates nothing.
+ */
+public class ZoneOverlay extends Overlay {
+
+    public static final float ZONE_RADIUS_METERS = 1000f;
+
+    private static final int ACTIVE_FILL = 0x30D32F2F; // Semi-transparent red
+    private static final int ACTIVE_STROKE = 0xFFD32F2F; // Solid red border
+    private static final int INACTIVE_FILL = 0x30606060; // Semi-transparent grey
+    private static final int INACTIVE_STROKE = 0xFF606060; // Solid grey border
+
+    private static final class Zone {
+        final String postId;
+        final GeoPoint center = new GeoPoint(0.0, 0.0);
+        boolean active;
+        boolean hidden;
+
+        Zone(String postId) {
+            this.postId = postId;
+        }
+    }
+
+    // List for drawing, map for O(1) updates; removal swaps the last zone into the gap
+    private final List<Zone> zones = new ArrayList<>();
+    private final Map<String, Integer> indexById = new HashMap<>();
+
+    private final Paint activeFill = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint activeStroke = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint inactiveFill = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint inactiveStroke = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Point point = new Point();
+
+    private Set<String> hiddenIds = Collections.emptySet();
+
+    public ZoneOverlay(float density) {
+        setup(activeFill, Paint.Style.FILL, ACTIVE_FILL, 0);
+        setup(inactiveFill, Paint.Style.FILL, INACTIVE_FILL, 0);
+        setup(activeStroke, Paint.Style.STROKE, ACTIVE_STROKE, 2 * density);
+        setup(inactiveStroke, Paint.Style.STROKE, INACTIVE_STROKE, 2 * density);
+    }
+
+    private static void setup(Paint paint, Paint.Style style, int color, float strokeWidth) {
+        paint.setStyle(style);
+        paint.setColor(color);
+        paint.setStrokeWidth(strokeWidth);
+    }
+
+    public void put(String postId, double latitude, double longitude, boolean active) {
+        Integer index = indexById.get(postId);
+        Zone zone;
+        if (index == null) {
+            zone = new Zone(postId);
+            zone.hidden = hiddenIds.contains(postId);
+            indexById.put(postId, zones.size());
+            zones.add(zone);
+        } else {
+            zone = zones.get(index);
+        }
+        zone.center.setCoords(latitude, longitude);
+        zone.active = active;
+    }
+
+    public void remove(String postId) {
+        Integer index = indexById.remove(postId);
+        if (index == null) return;
+
+        Zone last = zones.remove(zones.size() - 1);
+        if (index < zones.size()) {
+            zones.set(index, last);
+            indexById.put(last.postId, index);
+        }
+    }
+
+    /** Zones of clustered disasters are not drawn, their cluster badge stands in. */
+    public void setHidden(Set<String> postIds) {
+        hiddenIds = postIds;
+        for (Zone zone : zones) zone.hidden = postIds.contains(zone.postId);
+    }
+
+    @Override
+    public void draw(Canvas canvas, Projection projection) {
+        if (!isEnabled() || zones.isEmpty()) return;
+
+        float radius = projection.metersToPixels(ZONE_RADIUS_METERS);
+        if (radius < 1) return; // Smaller than a pixel at this zoom
+        boolean drawStroke = radius >= 3;
+        int width = canvas.getWidth();
+        int height = canvas.getHeight();
+
+        for (int i = 0, n = zones.size(); i < n; i++) {
+            Zone zone = zones.get(i);
+            if (zone.hidden) continue;
+
+            projection.toPixels(zone.center, point);
+            if (point.x + radius < 0 || point.y + radius < 0
+                    || point.x - radius > width || point.y - radius > height) {
+                continue;
+            }
+
+            canvas.drawCircle(point.x, point.y, radius, zone.active ? activeFill : inactiveFill);
+            if (drawStroke) {
+                canvas.drawCircle(point.x, point.y, radius, zone.active ? activeStroke : inactiveStroke);
+            }
+        }
+    }
+}
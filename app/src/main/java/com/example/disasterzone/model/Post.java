@@ -1,16 +1,30 @@
 package com.example.disasterzone.model;
 
 public class Post {
+    // Image payloads live outside "posts" so post listeners never download them
+    public static final String IMAGES_NODE = "postImages";
+    public static final String THUMBS_NODE = "postThumbs";
+    // Full images uploaded in pieces: {node}/{postId}/{0..imageChunks-1}, see ImageChunks
+    public static final String IMAGE_CHUNKS_NODE = "postImageChunks";
+
     public String postId;
     public String userId;
     public String username;
     public String description;
-    public String imageUrl;
+    public String imageUrl; // Legacy inline Base64, only on posts not yet migrated
+    public String imagePath; // e.g. "postImages/{postId}"
+    public String thumbPath; // e.g. "postThumbs/{postId}", small preview for lists and map
+    public int imageWidth;
+    public int imageHeight;
+    public int imageChunks; // > 0 when imagePath points at numbered chunks instead of one string
+    public int imageBytes; // Decoded size of a chunked image
     public double latitude;
     public double longitude;
+    public String geohash; // GeoHash.encode(latitude, longitude, STORED_PRECISION), for map area queries
     public long timestamp;
     public boolean isActive = true;
     public long endedTimestamp = 0;
+    public long likeCount = 0; // Kept in sync with likes/{postId} by LikeCounter
 
     // Default constructor required for Firebase
     public Post() {
@@ -0,0 +1,235 @@
+package com.example.disasterzone.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Standard Base64 (RFC 4648, padded, no line breaks) that never holds the raw bytes and
+ * their encoding at the same time. {@link Encoder} is an {@link OutputStream}, so image
+ * compressors write straight into the ASCII buffer, and decoding writes into a caller's
+ * buffer of exactly the decoded length. Decoding skips whitespace, so strings written
+ * with line breaks by {@code android.util.Base64.DEFAULT} still read back.
+ * Plain Java, no Android dependencies.
+ */
+public final class Base64Codec {
+
+    private static final byte[] ALPHABET =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".getBytes(StandardCharsets.US_ASCII);
+    private static final byte PAD = '=';
+    private static final int WHITESPACE = -2, INVALID = -1;
+    private static final int[] VALUES = new int[128];
+    static {
+        Arrays.fill(VALUES, INVALID);
+        for (int i = 0; i < ALPHABET.length; i++) VALUES[ALPHABET[i]] = i;
+        VALUES['\n'] = VALUES['\r'] = VALUES[' '] = VALUES['\t'] = WHITESPACE;
+    }
+
+    // Per-thread decode buffers are kept up to this size
+    public static final int POOL_MAX_BYTES = 1024 * 1024;
+    private static final ThreadLocal<Decoded> POOL = ThreadLocal.withInitial(() -> new Decoded(new byte[0], 0));
+
+    private Base64Codec() {}
+
+    public static int encodedLength(long byteCount) {
+        long length = (byteCount + 2) / 3 * 4;
+        if (length > Integer.MAX_VALUE) throw new IllegalArgumentException("Too large: " + byteCount);
+        return (int) length;
+    }
+
+    /** Encodes exactly {@code length} bytes from the stream, reading it in small blocks. */
+    public static String encode(InputStream in, long length) throws IOException {
+        Encoder encoder = new Encoder((int) Math.min(length, Integer.MAX_VALUE));
+        byte[] block = new byte[3 * 1024];
+        long remaining = length;
+        while (remaining > 0) {
+            int n = in.read(block, 0, (int) Math.min(block.length, remaining));
+            if (n < 0) throw new IOException("Stream ended " + remaining + " bytes early");
+            encoder.write(block, 0, n);
+            remaining -= n;
+        }
+        return encoder.toString();
+    }
+
+    public static String encode(byte[] bytes) {
+        return encode(bytes, 0, bytes.length);
+    }
+
+    public static String encode(byte[] bytes, int offset, int length) {
+        Encoder encoder = new Encoder(length);
+        encoder.write(bytes, offset, length);
+        return encoder.toString();
+    }
+
+    /** Number of bytes {@code base64} decodes to, without allocating. */
+    public static int decodedLength(CharSequence base64) {
+        int symbols = 0, padding = 0;
+        for (int i = 0, n = base64.length(); i < n; i++) {
+            char c = base64.charAt(i);
+            if (c == PAD) padding++;
+            else if (c >= 128 || VALUES[c] != WHITESPACE) symbols++;
+        }
+        int total = symbols + padding;
+        if (total % 4 == 1) throw new IllegalArgumentException("Truncated Base64 input");
+        return (int) ((long) symbols * 3 / 4);
+    }
+
+    public static byte[] decode(CharSequence base64) {
+        byte[] bytes = new byte[decodedLength(base64)];
+        decode(base64, bytes, 0);
+        return bytes;
+    }
+
+    /**
+     * Decodes into {@code dst} starting at {@code offset}, which must have room for
+     * {@link #decodedLength}. Returns the number of bytes written.
+     */
+    public static int decode(CharSequence base64, byte[] dst, int offset) {
+        int out = offset;
+        int bits = 0, count = 0;
+        for (int i = 0, n = base64.length(); i < n; i++) {
+            char c = base64.charAt(i);
+            if (c == PAD) break;
+            int value = c < 128 ? VALUES[c] : INVALID;
+            if (value == WHITESPACE) continue;
+            if (value == INVALID) throw new IllegalArgumentException("Bad Base64 character at " + i);
+            bits = (bits << 6) | value;
+            if (++count == 4) {
+                dst[out++] = (byte) (bits >> 16);
+                dst[out++] = (byte) (bits >> 8);
+                dst[out++] = (byte) bits;
+                bits = 0;
+                count = 0;
+            }
+        }
+        if (count == 3) {
+            dst[out++] = (byte) (bits >> 10);
+            dst[out++] = (byte) (bits >> 2);
+        } else if (count == 2) {
+            dst[out++] = (byte) (bits >> 4);
+        } else if (count == 1) {
+            throw new IllegalArgumentException("Truncated Base64 input");
+        }
+        return out - offset;
+    }
+
+    /**
+     * Decodes into a buffer owned by the calling thread and reused by its next call, so
+     * steady-state decoding allocates nothing. Inputs above {@link #POOL_MAX_BYTES} get a
+     * one-off buffer instead of pinning it. Only read the result before the next call.
+     */
+    public static Decoded decodePooled(CharSequence base64) {
+        Decoded decoded = POOL.get();
+        int needed = decodedLength(base64);
+        byte[] data = decoded.data;
+        if (data.length < needed) {
+            data = new byte[needed];
+            if (needed <= POOL_MAX_BYTES) decoded.data = data;
+        }
+        decoded.length = decode(base64, data, 0);
+        if (data != decoded.data) return new Decoded(data, decoded.length);
+        return decoded;
+    }
+
+    /** Decoded bytes are {@code data[0, length)}; the array may be longer. */
+    public static final class Decoded {
+        public byte[] data;
+        public int length;
+
+        Decoded(byte[] data, int length) {
+            this.data = data;
+            this.length = length;
+        }
+    }
+
+    /**
+     * Stream that Base64-encodes everything written to it into one growable ASCII buffer.
+     * Size it with the expected byte count to avoid regrowth. {@link #reset} keeps the
+     * buffer, so one encoder can be reused across attempts.
+     */
+    public static final class Encoder extends OutputStream {
+        private byte[] buf;
+        private int length; // ASCII chars written
+        private long byteCount;
+        private int pending, pendingCount; // Up to two bytes waiting for a full group
+
+        public Encoder(int expectedBytes) {
+            buf = new byte[Math.max(4, encodedLength(Math.max(0, expectedBytes)))];
+        }
+
+        @Override
+        public void write(int b) {
+            pending = (pending << 8) | (b & 0xFF);
+            byteCount++;
+            if (++pendingCount == 3) {
+                ensure(4);
+                put(pending, 4);
+                pending = 0;
+                pendingCount = 0;
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            int end = off + len;
+            // Finish a group started by an earlier write
+            while (pendingCount != 0 && off < end) write(b[off++]);
+
+            int groups = (end - off) / 3;
+            ensure(groups * 4);
+            byte[] out = buf;
+            int o = length;
+            for (int g = 0; g < groups; g++, off += 3) {
+                int bits = (b[off] & 0xFF) << 16 | (b[off + 1] & 0xFF) << 8 | (b[off + 2] & 0xFF);
+                out[o++] = ALPHABET[bits >>> 18];
+                out[o++] = ALPHABET[(bits >>> 12) & 0x3F];
+                out[o++] = ALPHABET[(bits >>> 6) & 0x3F];
+                out[o++] = ALPHABET[bits & 0x3F];
+            }
+            length = o;
+            byteCount += groups * 3L;
+            while (off < end) write(b[off++]);
+        }
+
+        /** Raw bytes written since the last reset. */
+        public long byteCount() {
+            return byteCount;
+        }
+
+        public void reset() {
+            length = 0;
+            byteCount = 0;
+            pending = 0;
+            pendingCount = 0;
+        }
+
+        /** The encoding so far, padded. Does not change the encoder. */
+        @Override
+        public String toString() {
+            if (pendingCount == 0) return new String(buf, 0, length, StandardCharsets.US_ASCII);
+            ensure(4);
+            int shifted = pending << (pendingCount == 1 ? 16 : 8);
+            int saved = length;
+            put(shifted, pendingCount + 1);
+            for (int i = length; i < saved + 4; i++) buf[i] = PAD;
+            String result = new String(buf, 0, saved + 4, StandardCharsets.US_ASCII);
+            length = saved;
+            return result;
+        }
+
+        private void put(int bits, int chars) {
+            buf[length++] = ALPHABET[bits >>> 18];
+            buf[length++] = ALPHABET[(bits >>> 12) & 0x3F];
+            if (chars > 2) buf[length++] = ALPHABET[(bits >>> 6) & 0x3F];
+            if (chars > 3) buf[length++] = ALPHABET[bits & 0x3F];
+        }
+
+        private void ensure(int extra) {
+            if (length + extra <= buf.length) return;
+            int capacity = Math.max(length + extra, buf.length + (buf.length >> 1));
+            buf = Arrays.copyOf(buf, capacity);
+        }
+    }
+}
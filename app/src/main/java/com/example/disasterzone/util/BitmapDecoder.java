@@ -0,0 +1,100 @@
+package com.example.disasterzone.util;
+
+import android.content.ContentResolver;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.net.Uri;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Decodes photos without ever holding the full-resolution bitmap. The first pass reads
+ * only the bounds, the second decodes with a power-of-two {@code inSampleSize} chosen so
+ * the result is still at least the target size but fits the memory budget, and a final
+ * aspect-preserving scale brings the long edge down to the target.
+ * Blocking, call from a background thread.
+ */
+public final class BitmapDecoder {
+
+    // ARGB_8888
+    private static final int BYTES_PER_PIXEL = 4;
+
+    private BitmapDecoder() {}
+
+    /** Returns null when the stream is not an image. */
+    public static Bitmap decode(ContentResolver resolver, Uri uri, int longEdge, long budgetBytes)
+            throws IOException {
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        try (InputStream in = open(resolver, uri)) {
+            BitmapFactory.decodeStream(in, null, options);
+        }
+        if (options.outWidth <= 0 || options.outHeight <= 0) return null;
+
+        options.inJustDecodeBounds = false;
+        options.inSampleSize = sampleSize(options.outWidth, options.outHeight, longEdge, budgetBytes);
+        options.inPreferredConfig = Bitmap.Config.ARGB_8888;
+        Bitmap sampled;
+        try (InputStream in = open(resolver, uri)) {
+            sampled = BitmapFactory.decodeStream(in, null, options);
+        }
+        if (sampled == null) return null;
+
+        Bitmap scaled = scaleToLongEdge(sampled, longEdge);
+        if (scaled != sampled) sampled.recycle();
+        return scaled;
+    }
+
+    /**
+     * Largest power of two that keeps the decoded long edge at or above {@code longEdge},
+     * raised further if the sampled bitmap plus the scaled copy would exceed the budget.
+     */
+    public static int sampleSize(int width, int height, int longEdge, long budgetBytes) {
+        int sourceLong = Math.max(width, height);
+        int sample = 1;
+        while (sourceLong / (sample * 2) >= longEdge) sample *= 2;
+
+        long target = scaledBytes(width, height, longEdge);
+        while (sample < sourceLong && decodedBytes(width, height, sample) + target > budgetBytes) {
+            sample *= 2;
+        }
+        return sample;
+    }
+
+    /** Shrinks so the longer side is {@code longEdge}; smaller bitmaps are returned as is. */
+    public static Bitmap scaleToLongEdge(Bitmap source, int longEdge) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        if (Math.max(width, height) <= longEdge) return source;
+        int[] size = scaledSize(width, height, longEdge);
+        return Bitmap.createScaledBitmap(source, size[0], size[1], true);
+    }
+
+    static int[] scaledSize(int width, int height, int longEdge) {
+        if (Math.max(width, height) <= longEdge) return new int[]{width, height};
+        if (width >= height) {
+            return new int[]{longEdge, Math.max(1, Math.round(height * (longEdge / (float) width)))};
+        }
+        return new int[]{Math.max(1, Math.round(width * (longEdge / (float) height))), longEdge};
+    }
+
+    // BitmapFactory rounds sampled sizes up
+    private static long decodedBytes(int width, int height, int sample) {
+        long w = (width + sample - 1) / sample;
+        long h = (height + sample - 1) / sample;
+        return w * h * BYTES_PER_PIXEL;
+    }
+
+    private static long scaledBytes(int width, int height, int longEdge) {
+        int[] size = scaledSize(width, height, longEdge);
+        return (long) size[0] * size[1] * BYTES_PER_PIXEL;
+    }
+
+    private static InputStream open(ContentResolver resolver, Uri uri) throws IOException {
+        InputStream in = resolver.openInputStream(uri);
+        if (in == null) throw new FileNotFoundException("No content at " + uri);
+        return in;
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.disasterzone.util;
+
+import android.util.Log;
+
+import com.example.disasterzone.model.Post;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.Query;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Ended disasters are kept for 24 hours, then removed everywhere.
+ * The feed and map use {@link #isExpired} to hide them right away; {@link #sweep}
+ * deletes them from the database, reading only expired posts through the
+ * endedTimestamp index and removing each batch with one multi-path update.
+ */
+public class DisasterExpiry {
+
+    public static final long EXPIRY_MS = 24 * 60 * 60 * 1000L;
+
+    private static final String TAG = "DisasterExpiry";
+    private static final int BATCH_SIZE = 50;
+
+    private static final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    public static class Report {
+        public final int expired;
+        /** Approximate size of the JSON the sweep downloaded. */
+        public final long bytesRead;
+
+        Report(int expired, long bytesRead) {
+            this.expired = expired;
+            this.bytesRead = bytesRead;
+        }
+    }
+
+    public static boolean isExpired(Post post) {
+        return isExpired(post, System.currentTimeMillis());
+    }
+
+    public static boolean isExpired(Post post, long now) {
+        return !post.isActive && now - post.endedTimestamp > EXPIRY_MS;
+    }
+
+    public static void sweepInBackground(DatabaseReference root) {
+        executor.execute(() -> {
+            try {
+                Report report = sweep(root);
+                Log.i(TAG, "Expired " + report.expired + " posts, read ~" + report.bytesRead + " bytes");
+            } catch (Exception e) {
+                Log.w(TAG, "Expiry sweep failed", e);
+            }
+        });
+    }
+
+    /** Blocking, call from a background thread. */
+    public static Report sweep(DatabaseReference root) throws Exception {
+        long cutoff = System.currentTimeMillis() - EXPIRY_MS;
+        int expired = 0;
+        long bytesRead = 0;
+        Long lastEnded = null;
+        String lastKey = null;
+
+        while (true) {
+            // Active posts have endedTimestamp 0 and stay outside the range
+            Query page = root.child("posts").orderByChild("endedTimestamp");
+            page = lastKey == null ? page.startAt(1) : page.startAfter(lastEnded, lastKey);
+            DataSnapshot snapshot = Tasks.await(page.endAt(cutoff).limitToFirst(BATCH_SIZE).get());
+            bytesRead += estimateBytes(snapshot.getValue());
+
+            Map<String, Object> removal = new HashMap<>();
+            for (DataSnapshot ds : snapshot.getChildren()) {
+                lastKey = ds.getKey();
+                lastEnded = ds.child("endedTimestamp").getValue(Long.class);
+                Boolean active = ds.child("isActive").getValue(Boolean.class);
+                if (Boolean.TRUE.equals(active)) continue;
+
+                removal.put("posts/" + lastKey, null);
+                removal.put(Post.IMAGES_NODE + "/" + lastKey, null);
+                removal.put(Post.IMAGE_CHUNKS_NODE + "/" + lastKey, null);
+                removal.put(Post.THUMBS_NODE + "/" + lastKey, null);
+                removal.put("likes/" + lastKey, null);
+                removal.put("comments/" + lastKey, null);
+                expired++;
+            }
+            // Listeners drop the overlays and rows through onChildRemoved
+            if (!removal.isEmpty()) Tasks.await(root.updateChildren(removal));
+            if (snapshot.getChildrenCount() < BATCH_SIZE || lastEnded == null) break;
+        }
+        return new Report(expired, bytesRead);
+    }
+
+    // Size of the value as JSON, close enough to what came over the wire
+    private static long estimateBytes(Object value) {
+        if (value == null) return 4;
+        if (value instanceof String) return ((String) value).getBytes(StandardCharsets.UTF_8).length + 2;
+        if (value instanceof Map) {
+            long size = 2;
+            for (Map.Entry<?, ?> e : ((Map<?, ?>) value).entrySet()) {
+                size += String.valueOf(e.getKey()).length() + 4 + estimateBytes(e.getValue());
+            }
+            return size;
+        }
+        if (value instanceof List) {
+            long size = 2;
+            for (Object item : (List<?>) value) size += estimateBytes(item) + 1;
+            return size;
+        }
+        return String.valueOf(value).length();
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.disasterzone.util;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Standard base32 geohash. Posts sharing a prefix lie in the same cell, so a cell is
+ * one range query on the "geohash" child: startAt(cell).endAt(cell + RANGE_END).
+ */
+public class GeoHash {
+
+    // Sorts after every base32 character, closes a prefix range
+    public static final String RANGE_END = "\uf8ff";
+
+    // ~5 m cells, stored on every post; queries use shorter prefixes
+    public static final int STORED_PRECISION = 9;
+
+    private static final char[] BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz".toCharArray();
+
+    public static String encode(double latitude, double longitude, int precision) {
+        double minLat = -90, maxLat = 90, minLon = -180, maxLon = 180;
+        StringBuilder hash = new StringBuilder(precision);
+        boolean evenBit = true; // Bits alternate, longitude first
+        int bit = 0, ch = 0;
+
+        while (hash.length() < precision) {
+            if (evenBit) {
+                double mid = (minLon + maxLon) / 2;
+                if (longitude >= mid) {
+                    ch = (ch << 1) | 1;
+                    minLon = mid;
+                } else {
+                    ch = ch << 1;
+                    maxLon = mid;
+                }
+            } else {
+                double mid = (minLat + maxLat) / 2;
+                if (latitude >= mid) {
+                    ch = (ch << 1) | 1;
+                    minLat = mid;
+                } else {
+                    ch = ch << 1;
+                    maxLat = mid;
+                }
+            }
+            evenBit = !evenBit;
+
+            if (++bit == 5) {
+                hash.append(BASE32[ch]);
+                bit = 0;
+                ch = 0;
+            }
+        }
+        return hash.toString();
+    }
+
+    public static double cellWidth(int precision) {
+        return 360 / Math.pow(2, (5 * precision + 1) / 2);
+    }
+
+    public static double cellHeight(int precision) {
+        return 180 / Math.pow(2, (5 * precision) / 2);
+    }
+
+    /** Cells of the given precision that together cover the box. */
+    public static Set<String> coveringCells(double north, double south, double east, double west, int precision) {
+        double width = cellWidth(precision);
+        double height = cellHeight(precision);
+        north = Math.min(north, 90 - 1e-9);
+        south = Math.max(south, -90);
+        east = Math.min(east, 180 - 1e-9);
+        west = Math.max(west, -180);
+
+        Set<String> cells = new LinkedHashSet<>();
+        long rowStart = (long) Math.floor((south + 90) / height);
+        long rowEnd = (long) Math.floor((north + 90) / height);
+        long colStart = (long) Math.floor((west + 180) / width);
+        long colEnd = (long) Math.floor((east + 180) / width);
+        for (long row = rowStart; row <= rowEnd; row++) {
+            double lat = -90 + (row + 0.5) * height;
+            for (long col = colStart; col <= colEnd; col++) {
+                cells.add(encode(lat, -180 + (col + 0.5) * width, precision));
+            }
+        }
+        return cells;
+    }
+
+    /** Finest precision whose covering of the box needs at most {@code maxCells} cells. */
+    public static int precisionFor(double north, double south, double east, double west, int maxCells) {
+        for (int precision = STORED_PRECISION; precision > 1; precision--) {
+            double rows = Math.floor((north + 90) / cellHeight(precision)) - Math.floor((south + 90) / cellHeight(precision)) + 1;
+            double cols = Math.floor((east + 180) / cellWidth(precision)) - Math.floor((west + 180) / cellWidth(precision)) + 1;
+            if (rows * cols <= maxCells) return precision;
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.disasterzone.util;
+
+import android.util.Log;
+
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.Query;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * One-time pass that adds the "geohash" field to posts uploaded before it existed, so
+ * the map's area queries find them. Idempotent, posts that already have it are skipped.
+ */
+public class GeoHashBackfill {
+
+    private static final String TAG = "GeoHashBackfill";
+    private static final String DONE_FLAG = "meta/migrations/geohash";
+    private static final int BATCH_SIZE = 50;
+
+    private static final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private static boolean started = false;
+
+    public static synchronized void runIfNeeded(DatabaseReference root) {
+        if (started) return;
+        started = true;
+        executor.execute(() -> {
+            try {
+                Boolean done = Tasks.await(root.child(DONE_FLAG).get()).getValue(Boolean.class);
+                if (Boolean.TRUE.equals(done)) return;
+
+                int updated = backfill(root);
+                root.child(DONE_FLAG).setValue(true);
+                Log.i(TAG, "Added geohash to " + updated + " posts");
+            } catch (Exception e) {
+                Log.w(TAG, "Geohash backfill interrupted, will retry next launch", e);
+                synchronized (GeoHashBackfill.class) {
+                    started = false;
+                }
+            }
+        });
+    }
+
+    private static int backfill(DatabaseReference root) throws Exception {
+        int updated = 0;
+        String lastKey = null;
+
+        while (true) {
+            Query page = root.child("posts").orderByKey().limitToFirst(BATCH_SIZE);
+            if (lastKey != null) page = page.startAfter(lastKey);
+            DataSnapshot snapshot = Tasks.await(page.get());
+
+            Map<String, Object> updates = new HashMap<>();
+            for (DataSnapshot ds : snapshot.getChildren()) {
+                lastKey = ds.getKey();
+                if (ds.hasChild("geohash")) continue;
+
+                Double latitude = ds.child("latitude").getValue(Double.class);
+                Double longitude = ds.child("longitude").getValue(Double.class);
+                if (latitude == null || longitude == null) continue;
+                updates.put("posts/" + lastKey + "/geohash",
+                        GeoHash.encode(latitude, longitude, GeoHash.STORED_PRECISION));
+            }
+
+            if (!updates.isEmpty()) {
+                Tasks.await(root.updateChildren(updates));
+                updated += updates.size();
+            }
+            if (snapshot.getChildrenCount() < BATCH_SIZE) return updated;
+        }
+    }
+}
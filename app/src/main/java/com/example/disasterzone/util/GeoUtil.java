@@ -0,0 +1,35 @@
+package com.example.disasterzone.util;
+
+/**
+ * Great-circle distances for proximity checks.
+ */
+public class GeoUtil {
+
+    public static final double EARTH_RADIUS_KM = 6371;
+    // Length of one degree of latitude
+    public static final double KM_PER_DEGREE = Math.PI * EARTH_RADIUS_KM / 180;
+
+    // Haversine formula for distance calculation
+    public static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2) +
+                Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) *
+                        Math.sin(dLon / 2) * Math.sin(dLon / 2);
+
+        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+        return EARTH_RADIUS_KM * c;
+    }
+
+    /** Degrees of latitude spanned by a distance. */
+    public static double latitudeDelta(double km) {
+        return km / KM_PER_DEGREE;
+    }
+
+    /** Degrees of longitude spanned by a distance at a latitude; 360 near the poles. */
+    public static double longitudeDelta(double km, double latitude) {
+        double cos = Math.cos(Math.toRadians(latitude));
+        return cos < 1e-6 ? 360 : Math.min(360, km / (KM_PER_DEGREE * cos));
+    }
+}
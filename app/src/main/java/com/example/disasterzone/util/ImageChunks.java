@@ -0,0 +1,98 @@
+package com.example.disasterzone.util;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseReference;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full images stored as numbered Base64 chunks under one node. Uploads write one chunk
+ * at a time and wait for the server to confirm it, so a dropped connection only costs
+ * the chunk in flight and small writes never hold up others on the connection. Reads
+ * decode every chunk straight into place as it arrives.
+ * Blocking, call from a background thread.
+ */
+public final class ImageChunks {
+
+    // Multiple of 3, so every chunk but the last encodes without padding
+    public static final int CHUNK_BYTES = 15 * 1024;
+    // Writes wait forever while offline; give up and resume later instead
+    private static final long ACK_TIMEOUT_S = 30;
+
+    public interface Progress {
+        /** Called after chunk {@code confirmed - 1} was acknowledged by the server. */
+        void onChunkConfirmed(int confirmed, int total);
+    }
+
+    private ImageChunks() {}
+
+    public static int chunkCount(long byteCount) {
+        return (int) ((byteCount + CHUNK_BYTES - 1) / CHUNK_BYTES);
+    }
+
+    /** Uploads chunks {@code from} onward; earlier ones were confirmed by a previous attempt. */
+    public static void upload(DatabaseReference chunksRef, File file, int from, Progress progress) throws Exception {
+        long length = file.length();
+        int total = chunkCount(length);
+        byte[] block = new byte[CHUNK_BYTES];
+        try (InputStream in = new FileInputStream(file)) {
+            skipFully(in, (long) from * CHUNK_BYTES);
+            for (int i = from; i < total; i++) {
+                int size = (int) Math.min(CHUNK_BYTES, length - (long) i * CHUNK_BYTES);
+                readFully(in, block, size);
+                Tasks.await(chunksRef.child(String.valueOf(i)).setValue(Base64Codec.encode(block, 0, size)),
+                        ACK_TIMEOUT_S, TimeUnit.SECONDS);
+                progress.onChunkConfirmed(i + 1, total);
+            }
+        }
+    }
+
+    /**
+     * Reassembles an image of {@code byteCount} bytes. The next chunk is requested before
+     * the current one is decoded, so the download overlaps decoding and at most two chunk
+     * strings are alive at once.
+     */
+    public static byte[] read(DatabaseReference chunksRef, int count, int byteCount) throws Exception {
+        byte[] bytes = new byte[byteCount];
+        int offset = 0;
+        Task<DataSnapshot> next = chunksRef.child("0").get();
+        for (int i = 0; i < count; i++) {
+            DataSnapshot snapshot = Tasks.await(next);
+            if (i + 1 < count) next = chunksRef.child(String.valueOf(i + 1)).get();
+
+            String base64 = snapshot.getValue(String.class);
+            if (base64 == null) throw new FileNotFoundException("Missing chunk " + i + " of " + chunksRef.getKey());
+            if (offset + Base64Codec.decodedLength(base64) > byteCount) {
+                throw new IOException("Chunk " + i + " of " + chunksRef.getKey() + " overruns the image");
+            }
+            offset += Base64Codec.decode(base64, bytes, offset);
+        }
+        if (offset != byteCount) throw new EOFException("Image " + chunksRef.getKey() + " is incomplete");
+        return bytes;
+    }
+
+    private static void skipFully(InputStream in, long count) throws IOException {
+        while (count > 0) {
+            long skipped = in.skip(count);
+            if (skipped <= 0) throw new EOFException("Spooled image shorter than the confirmed chunks");
+            count -= skipped;
+        }
+    }
+
+    private static void readFully(InputStream in, byte[] buffer, int size) throws IOException {
+        int read = 0;
+        while (read < size) {
+            int n = in.read(buffer, read, size - read);
+            if (n < 0) throw new EOFException("Spooled image truncated");
+            read += n;
+        }
+    }
+}
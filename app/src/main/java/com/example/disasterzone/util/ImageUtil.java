@@ -2,24 +2,195 @@ package com.example.disasterzone.util;
 
 import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
-import android.util.Base64;
+import android.os.Build;
 import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
 
 public class ImageUtil {
+
+    // List/map previews: ~200px wide, a few KB instead of the full photo
+    public static final int THUMB_WIDTH = 200;
+
+    // Byte budgets for one database node, see UploadProfile for the low-bandwidth ones
+    public static final int IMAGE_MAX_BYTES = 80 * 1024;
+    public static final int THUMB_MAX_BYTES = 8 * 1024;
+
+    // Quality search range; below the floor the image is shrunk instead
+    static final int MAX_QUALITY = 85;
+    static final int MIN_QUALITY = 30;
+    private static final int MAX_SHRINKS = 3;
+
+    /** Encoded image bytes plus how they were produced. */
+    public static final class Encoded {
+        public final byte[] bytes;
+        public final Bitmap.CompressFormat format;
+        public final int quality;
+        public final int width, height;
+
+        Encoded(byte[] bytes, Bitmap.CompressFormat format, int quality, int width, int height) {
+            this.bytes = bytes;
+            this.format = format;
+            this.quality = quality;
+            this.width = width;
+            this.height = height;
+        }
+    }
+
     public static String bitmapToBase64(Bitmap bitmap) {
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-        // Compress significantly (50%) to fit in Realtime DB
-        bitmap.compress(Bitmap.CompressFormat.JPEG, 50, outputStream);
-        byte[] byteArray = outputStream.toByteArray();
-        return Base64.encodeToString(byteArray, Base64.DEFAULT);
+        return bitmapToBase64(bitmap, IMAGE_MAX_BYTES);
+    }
+
+    /** The compressor writes straight into the Base64 encoder, the raw bytes never exist. */
+    public static String bitmapToBase64(Bitmap bitmap, int maxBytes) {
+        Base64Sink sink = new Base64Sink(maxBytes);
+        Bitmap fitted = fit(bitmap, maxBytes, preferredFormat(), sink);
+        if (fitted != bitmap) fitted.recycle();
+        return sink.encoder.toString();
+    }
+
+    /** Best available lossy format: WebP where the platform has an explicit lossy encoder. */
+    public static Bitmap.CompressFormat preferredFormat() {
+        return Build.VERSION.SDK_INT >= Build.VERSION_CODES.R
+                ? Bitmap.CompressFormat.WEBP_LOSSY : Bitmap.CompressFormat.JPEG;
+    }
+
+    public static Encoded encode(Bitmap bitmap, int maxBytes) {
+        return encode(bitmap, maxBytes, preferredFormat());
+    }
+
+    public static Encoded encode(Bitmap bitmap, int maxBytes, Bitmap.CompressFormat format) {
+        ByteSink sink = new ByteSink(maxBytes);
+        Bitmap fitted = fit(bitmap, maxBytes, format, sink);
+        Encoded encoded = new Encoded(sink.out.toByteArray(), format, sink.quality,
+                fitted.getWidth(), fitted.getHeight());
+        if (fitted != bitmap) fitted.recycle();
+        return encoded;
+    }
+
+    /**
+     * Leaves the highest quality whose output fits {@code maxBytes} in the sink, found by
+     * binary search over quality. If even the lowest quality is too big the bitmap is scaled
+     * down by the overshoot and searched again, so the result fits unless the image is tiny.
+     * Returns the bitmap that was encoded, a scaled copy when it had to shrink.
+     */
+    private static Bitmap fit(Bitmap bitmap, int maxBytes, Bitmap.CompressFormat format, Sink sink) {
+        Bitmap source = bitmap;
+        for (int shrink = 0; ; shrink++) {
+            search(source, maxBytes, format, sink);
+            if (sink.size() <= maxBytes || shrink == MAX_SHRINKS
+                    || source.getWidth() <= THUMB_WIDTH / 2) return source;
+
+            // Size scales roughly with pixel count
+            float scale = (float) Math.sqrt(maxBytes / (double) sink.size()) * 0.95f;
+            int width = Math.max(1, Math.round(source.getWidth() * scale));
+            int height = Math.max(1, Math.round(source.getHeight() * scale));
+            Bitmap smaller = Bitmap.createScaledBitmap(source, width, height, true);
+            if (source != bitmap) source.recycle();
+            source = smaller;
+        }
+    }
+
+    // Tries the top quality first, since most images fit and then one encode is enough
+    private static void search(Bitmap bitmap, int maxBytes, Bitmap.CompressFormat format, Sink sink) {
+        compress(bitmap, format, MAX_QUALITY, sink);
+        if (sink.size() <= maxBytes) return;
+
+        int fit = MIN_QUALITY;
+        int low = MIN_QUALITY, high = MAX_QUALITY - 1;
+        while (low <= high) {
+            int quality = (low + high) >>> 1;
+            compress(bitmap, format, quality, sink);
+            if (sink.size() <= maxBytes) {
+                fit = quality;
+                low = quality + 1;
+            } else {
+                high = quality - 1;
+            }
+        }
+        // The sink holds the last attempt, which is not always the one that fit
+        if (sink.quality != fit) compress(bitmap, format, fit, sink);
+    }
+
+    private static void compress(Bitmap bitmap, Bitmap.CompressFormat format, int quality, Sink sink) {
+        sink.reset();
+        bitmap.compress(format, quality, sink.stream());
+        sink.quality = quality;
+    }
+
+    // Where search attempts go; reset between attempts so the buffer is reused
+    private abstract static class Sink {
+        int quality;
+        abstract OutputStream stream();
+        abstract void reset();
+        abstract long size();
+    }
+
+    private static final class ByteSink extends Sink {
+        final ByteArrayOutputStream out;
+
+        ByteSink(int expectedBytes) {
+            out = new ByteArrayOutputStream(expectedBytes);
+        }
+
+        @Override
+        OutputStream stream() {
+            return out;
+        }
+
+        @Override
+        void reset() {
+            out.reset();
+        }
+
+        @Override
+        long size() {
+            return out.size();
+        }
+    }
+
+    private static final class Base64Sink extends Sink {
+        final Base64Codec.Encoder encoder;
+
+        Base64Sink(int expectedBytes) {
+            encoder = new Base64Codec.Encoder(expectedBytes);
+        }
+
+        @Override
+        OutputStream stream() {
+            return encoder;
+        }
+
+        @Override
+        void reset() {
+            encoder.reset();
+        }
+
+        @Override
+        long size() {
+            return encoder.byteCount();
+        }
+    }
+
+    public static Bitmap createThumbnail(Bitmap source) {
+        int width = Math.min(THUMB_WIDTH, source.getWidth());
+        int height = Math.max(1, Math.round(source.getHeight() * (width / (float) source.getWidth())));
+        return Bitmap.createScaledBitmap(source, width, height, true);
+    }
+
+    public static String thumbnailToBase64(Bitmap source) {
+        Bitmap thumb = createThumbnail(source);
+        String base64 = bitmapToBase64(thumb, THUMB_MAX_BYTES);
+        if (thumb != source) thumb.recycle();
+        return base64;
     }
 
+    // Decodes through this thread's pooled buffer; BitmapFactory copies nothing it keeps
     public static Bitmap base64ToBitmap(String base64String) {
         try {
-            byte[] decodedBytes = Base64.decode(base64String, Base64.DEFAULT);
-            return BitmapFactory.decodeByteArray(decodedBytes, 0, decodedBytes.length);
+            Base64Codec.Decoded decoded = Base64Codec.decodePooled(base64String);
+            return BitmapFactory.decodeByteArray(decoded.data, 0, decoded.length);
         } catch (Exception e) {
             return null;
         }
     }
-}
\ No newline at end of file
+}
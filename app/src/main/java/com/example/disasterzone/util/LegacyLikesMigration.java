@@ -0,0 +1,91 @@
+package com.example.disasterzone.util;
+
+import android.util.Log;
+
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.Query;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * One-time move of likes the old PostAdapter stored under posts/{postId}/likes into
+ * likes/{postId}, where the feed and {@link LikeCounter} read them. Each post's likers are
+ * merged with any already in the new location, its likeCount is set to the merged count,
+ * and the old node is removed, all in one multi-path update per batch. Safe to run from
+ * several clients at once: migrated posts no longer have the old node and are skipped.
+ */
+public class LegacyLikesMigration {
+
+    private static final String TAG = "LegacyLikesMigration";
+    private static final String DONE_FLAG = "meta/migrations/postLikes";
+    private static final int BATCH_SIZE = 50;
+
+    private static final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private static boolean started = false;
+
+    public static synchronized void runIfNeeded(DatabaseReference root) {
+        if (started) return;
+        started = true;
+        executor.execute(() -> {
+            try {
+                Boolean done = Tasks.await(root.child(DONE_FLAG).get()).getValue(Boolean.class);
+                if (Boolean.TRUE.equals(done)) return;
+
+                int migrated = migrateAll(root);
+                root.child(DONE_FLAG).setValue(true);
+                Log.i(TAG, "Moved likes of " + migrated + " posts");
+            } catch (Exception e) {
+                Log.w(TAG, "Likes migration interrupted, will retry next launch", e);
+                synchronized (LegacyLikesMigration.class) {
+                    started = false;
+                }
+            }
+        });
+    }
+
+    private static int migrateAll(DatabaseReference root) throws Exception {
+        int migrated = 0;
+        String lastKey = null;
+
+        while (true) {
+            Query page = root.child("posts").orderByKey().limitToFirst(BATCH_SIZE);
+            if (lastKey != null) page = page.startAfter(lastKey);
+            DataSnapshot snapshot = Tasks.await(page.get());
+
+            Map<String, Object> updates = new HashMap<>();
+            int batchCount = 0;
+            for (DataSnapshot ds : snapshot.getChildren()) {
+                lastKey = ds.getKey();
+                DataSnapshot legacy = ds.child("likes");
+                if (!legacy.exists()) continue;
+
+                Set<String> likers = new HashSet<>();
+                for (DataSnapshot like : Tasks.await(root.child("likes").child(lastKey).get()).getChildren()) {
+                    likers.add(like.getKey());
+                }
+                for (DataSnapshot like : legacy.getChildren()) {
+                    if (likers.add(like.getKey())) {
+                        updates.put("likes/" + lastKey + "/" + like.getKey(), true);
+                    }
+                }
+                // Toggles racing this are corrected by the daily LikeCounter.reconcile
+                updates.put("posts/" + lastKey + "/likeCount", likers.size());
+                updates.put("posts/" + lastKey + "/likes", null);
+                batchCount++;
+            }
+
+            if (!updates.isEmpty()) {
+                Tasks.await(root.updateChildren(updates));
+                migrated += batchCount;
+            }
+            if (snapshot.getChildrenCount() < BATCH_SIZE) return migrated;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.disasterzone.util;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.android.gms.tasks.TaskCompletionSource;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.MutableData;
+import com.google.firebase.database.Query;
+import com.google.firebase.database.Transaction;
+
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * Maintains the denormalized posts/{postId}/likeCount.
+ * Toggling flips likes/{postId}/{uid} in a transaction and then applies +1/-1 to the
+ * counter in a second transaction on the counter node. {@link #reconcile} recomputes every counter from the
+ * raw likes tree to repair drift (crashed clients, legacy posts without a counter).
+ */
+public class LikeCounter {
+
+    private static final String TAG = "LikeCounter";
+    public static final long RECONCILE_INTERVAL_MS = 24 * 60 * 60 * 1000;
+    private static final int RECONCILE_BATCH = 50;
+    private static final int CAS_ATTEMPTS = 3;
+    private static final long CAS_TIMEOUT_S = 30;
+
+    private static final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    public static void toggleLike(DatabaseReference root, String postId, String uid, @Nullable Runnable onLiked) {
+        DatabaseReference myLikeRef = root.child("likes").child(postId).child(uid);
+        myLikeRef.runTransaction(new Transaction.Handler() {
+            @NonNull
+            @Override
+            public Transaction.Result doTransaction(@NonNull MutableData current) {
+                current.setValue(current.getValue() == null ? Boolean.TRUE : null);
+                return Transaction.success(current);
+            }
+
+            @Override
+            public void onComplete(@Nullable DatabaseError error, boolean committed, @Nullable DataSnapshot snapshot) {
+                if (error != null || !committed || snapshot == null) return;
+
+                boolean liked = snapshot.exists();
+                updateCount(countRef(root, postId), count -> count + (liked ? 1 : -1));
+                if (liked && onLiked != null) onLiked.run();
+            }
+        });
+    }
+
+    // Runs on the counter alone, so it neither downloads the post nor retries when other
+    // fields change; the rules reject a counter whose post is gone, so a late write
+    // never recreates a deleted post
+    private static void updateCount(DatabaseReference countRef, LongUnaryOperator update) {
+        countRef.runTransaction(new Transaction.Handler() {
+            @NonNull
+            @Override
+            public Transaction.Result doTransaction(@NonNull MutableData count) {
+                Long value = count.getValue(Long.class);
+                count.setValue(Math.max(0, update.applyAsLong(value != null ? value : 0)));
+                return Transaction.success(count);
+            }
+
+            @Override
+            public void onComplete(@Nullable DatabaseError error, boolean committed, @Nullable DataSnapshot snapshot) {
+                if (error != null) Log.w(TAG, "likeCount update failed", error.toException());
+            }
+        });
+    }
+
+    // --- RECONCILIATION ---
+
+    // Callers gate this through a SweepLease with RECONCILE_INTERVAL_MS, so it runs on
+    // one client a day across all of them rather than once per device
+    public static void reconcileInBackground(DatabaseReference root) {
+        executor.execute(() -> {
+            try {
+                int fixed = reconcile(root);
+                Log.i(TAG, "Reconciled like counters, " + fixed + " corrected");
+            } catch (Exception e) {
+                Log.w(TAG, "Like counter reconciliation failed", e);
+            }
+        });
+    }
+
+    /** Blocking, call from a background thread. Returns how many counters were corrected. */
+    public static int reconcile(DatabaseReference root) throws Exception {
+        int fixed = 0;
+        Set<String> seen = new HashSet<>();
+
+        // 1. Every post that has likes: counter = number of likers
+        String lastKey = null;
+        while (true) {
+            Query page = root.child("likes").orderByKey().limitToFirst(RECONCILE_BATCH);
+            if (lastKey != null) page = page.startAfter(lastKey);
+            DataSnapshot likes = Tasks.await(page.get());
+
+            for (DataSnapshot postLikes : likes.getChildren()) {
+                lastKey = postLikes.getKey();
+                seen.add(lastKey);
+                if (setCount(root, lastKey, postLikes.getChildrenCount())) fixed++;
+            }
+            if (likes.getChildrenCount() < RECONCILE_BATCH) break;
+        }
+
+        // 2. Posts that still claim likes but have no likes node anymore (indexed on likeCount)
+        DataSnapshot counted = Tasks.await(root.child("posts").orderByChild("likeCount").startAt(1).get());
+        for (DataSnapshot post : counted.getChildren()) {
+            if (!seen.contains(post.getKey()) && setCount(root, post.getKey(), 0)) fixed++;
+        }
+        return fixed;
+    }
+
+    /**
+     * {@code pagedCount} comes from a likes page that may be minutes old, so it only decides
+     * whether to look closer. The likes are recounted right before the write, and the write
+     * only replaces the exact counter value read before that recount; a toggle committing
+     * in between makes it retry with a fresh count.
+     */
+    private static boolean setCount(DatabaseReference root, String postId, long pagedCount) throws Exception {
+        DatabaseReference countRef = countRef(root, postId);
+        Long stored = Tasks.await(countRef.get()).getValue(Long.class);
+        if (stored != null && stored == pagedCount) return false;
+
+        for (int attempt = 0; attempt < CAS_ATTEMPTS; attempt++) {
+            if (attempt > 0) stored = Tasks.await(countRef.get()).getValue(Long.class);
+            long expected = Tasks.await(root.child("likes").child(postId).get()).getChildrenCount();
+            if (stored != null && stored == expected) return false;
+            if (compareAndSet(countRef, stored, expected)) return true;
+        }
+        Log.w(TAG, "likeCount of " + postId + " kept changing, left for the next reconcile");
+        return false;
+    }
+
+    private static boolean compareAndSet(DatabaseReference countRef, @Nullable Long observed, long value)
+            throws Exception {
+        TaskCompletionSource<Boolean> result = new TaskCompletionSource<>();
+        countRef.runTransaction(new Transaction.Handler() {
+            private boolean applied;
+
+            @NonNull
+            @Override
+            public Transaction.Result doTransaction(@NonNull MutableData count) {
+                // Left untouched rather than aborted on a mismatch: the first run sees the
+                // local cache, and an abort there would never ask the server
+                applied = Objects.equals(count.getValue(Long.class), observed);
+                if (applied) count.setValue(value);
+                return Transaction.success(count);
+            }
+
+            @Override
+            public void onComplete(@Nullable DatabaseError error, boolean committed, @Nullable DataSnapshot snapshot) {
+                if (error != null) {
+                    result.setException(error.toException());
+                } else {
+                    result.setResult(committed && applied);
+                }
+            }
+        }, false);
+        return Tasks.await(result.getTask(), CAS_TIMEOUT_S, TimeUnit.SECONDS);
+    }
+
+    private static DatabaseReference countRef(DatabaseReference root, String postId) {
+        return root.child("posts").child(postId).child("likeCount");
+    }
+}
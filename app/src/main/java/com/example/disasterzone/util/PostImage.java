@@ -0,0 +1,78 @@
+package com.example.disasterzone.util;
+
+import androidx.annotation.NonNull;
+
+import com.example.disasterzone.model.Post;
+
+/**
+ * Glide model for a report image, either the small list thumbnail or the full photo.
+ * The Base64 payload is inline on legacy posts, otherwise it lives under
+ * {@link Post#THUMBS_NODE} / {@link Post#IMAGES_NODE} (or in chunks under
+ * {@link Post#IMAGE_CHUNKS_NODE}) and is only fetched when shown.
+ * Equality is by postId and variant, so the caches are keyed per post.
+ */
+public class PostImage {
+    public final String postId;
+    public final boolean thumbnail;
+    public final String thumbPath;
+    public final String imagePath;
+    public final String inlineBase64;
+    public final int imageChunks;
+    public final int imageBytes;
+    // False when only the id is known and the storage layout has to be probed
+    public final boolean layoutKnown;
+
+    private PostImage(@NonNull String postId, boolean thumbnail, String thumbPath, String imagePath,
+                      String inlineBase64, int imageChunks, int imageBytes, boolean layoutKnown) {
+        this.postId = postId;
+        this.thumbnail = thumbnail;
+        this.thumbPath = thumbPath;
+        this.imagePath = imagePath;
+        this.inlineBase64 = inlineBase64;
+        this.imageChunks = imageChunks;
+        this.imageBytes = imageBytes;
+        this.layoutKnown = layoutKnown;
+    }
+
+    public static PostImage thumbOf(@NonNull Post post) {
+        return new PostImage(post.postId, true, post.thumbPath, post.imagePath, post.imageUrl,
+                post.imageChunks, post.imageBytes, true);
+    }
+
+    public static PostImage fullOf(@NonNull Post post) {
+        return new PostImage(post.postId, false, post.thumbPath, post.imagePath, post.imageUrl,
+                post.imageChunks, post.imageBytes, true);
+    }
+
+    // Used where only the id is known (notifications, map popups)
+    public static PostImage thumbForPostId(@NonNull String postId) {
+        return new PostImage(postId, true, null, null, null, 0, 0, false);
+    }
+
+    public static boolean hasImage(@NonNull Post post) {
+        return post.imagePath != null || (post.imageUrl != null && !post.imageUrl.isEmpty());
+    }
+
+    public String cacheKey() {
+        return postId + (thumbnail ? "/thumb" : "/full");
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof PostImage)) return false;
+        PostImage other = (PostImage) o;
+        return thumbnail == other.thumbnail && postId.equals(other.postId);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * postId.hashCode() + (thumbnail ? 1 : 0);
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return "PostImage{" + cacheKey() + "}";
+    }
+}
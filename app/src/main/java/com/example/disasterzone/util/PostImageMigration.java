@@ -0,0 +1,107 @@
+package com.example.disasterzone.util;
+
+import android.graphics.Bitmap;
+import android.util.Log;
+
+import com.example.disasterzone.model.Post;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.Query;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * One-time rewrite of posts that still carry their Base64 image inline or have no thumbnail.
+ * Each post's payload moves to {@link Post#IMAGES_NODE}/{postId}, a thumbnail is written to
+ * {@link Post#THUMBS_NODE}/{postId}, and the post keeps only the paths plus the image
+ * dimensions. Safe to run from several clients at once:
+ * every batch is a single multi-path update and migrated posts are skipped.
+ */
+public class PostImageMigration {
+
+    private static final String TAG = "PostImageMigration";
+    private static final String DONE_FLAG = "meta/migrations/postThumbs";
+    private static final int BATCH_SIZE = 10;
+
+    private static final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private static boolean started = false;
+
+    public static synchronized void runIfNeeded(DatabaseReference root) {
+        if (started) return;
+        started = true;
+        executor.execute(() -> {
+            try {
+                Boolean done = Tasks.await(root.child(DONE_FLAG).get()).getValue(Boolean.class);
+                if (Boolean.TRUE.equals(done)) return;
+
+                int migrated = migrateAll(root);
+                root.child(DONE_FLAG).setValue(true);
+                Log.i(TAG, "Migrated images of " + migrated + " posts");
+            } catch (Exception e) {
+                Log.w(TAG, "Image migration interrupted, will retry next launch", e);
+                synchronized (PostImageMigration.class) {
+                    started = false;
+                }
+            }
+        });
+    }
+
+    private static int migrateAll(DatabaseReference root) throws Exception {
+        int migrated = 0;
+        String lastKey = null;
+
+        while (true) {
+            Query page = root.child("posts").orderByKey().limitToFirst(BATCH_SIZE);
+            if (lastKey != null) page = page.startAfter(lastKey);
+            DataSnapshot snapshot = Tasks.await(page.get());
+
+            Map<String, Object> updates = new HashMap<>();
+            int batchCount = 0;
+            for (DataSnapshot ds : snapshot.getChildren()) {
+                lastKey = ds.getKey();
+                String inline = ds.child("imageUrl").getValue(String.class);
+                String imagePath = ds.child("imagePath").getValue(String.class);
+                boolean hasThumb = ds.hasChild("thumbPath");
+
+                String base64;
+                if (inline != null && !inline.isEmpty()) {
+                    base64 = inline;
+                } else if (imagePath != null && !hasThumb) {
+                    // Moved earlier but uploaded before thumbnails existed
+                    base64 = Tasks.await(root.child(imagePath).get()).getValue(String.class);
+                } else {
+                    continue;
+                }
+                if (base64 == null || base64.isEmpty()) continue;
+
+                Bitmap full = ImageUtil.base64ToBitmap(base64);
+                if (full == null) continue;
+
+                String prefix = "posts/" + lastKey + "/";
+                if (imagePath == null) {
+                    imagePath = Post.IMAGES_NODE + "/" + lastKey;
+                    updates.put(imagePath, base64);
+                    updates.put(prefix + "imagePath", imagePath);
+                    updates.put(prefix + "imageWidth", full.getWidth());
+                    updates.put(prefix + "imageHeight", full.getHeight());
+                    updates.put(prefix + "imageUrl", null);
+                }
+                String thumbPath = Post.THUMBS_NODE + "/" + lastKey;
+                updates.put(thumbPath, ImageUtil.thumbnailToBase64(full));
+                updates.put(prefix + "thumbPath", thumbPath);
+                full.recycle();
+                batchCount++;
+            }
+
+            if (!updates.isEmpty()) {
+                Tasks.await(root.updateChildren(updates));
+                migrated += batchCount;
+            }
+            if (snapshot.getChildrenCount() < BATCH_SIZE) return migrated;
+        }
+    }
+}
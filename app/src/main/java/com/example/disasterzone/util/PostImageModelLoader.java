@@ -0,0 +1,130 @@
+package com.example.disasterzone.util;
+
+import androidx.annotation.NonNull;
+
+import com.bumptech.glide.Priority;
+import com.bumptech.glide.load.DataSource;
+import com.bumptech.glide.load.Options;
+import com.bumptech.glide.load.data.DataFetcher;
+import com.bumptech.glide.load.model.ModelLoader;
+import com.bumptech.glide.load.model.ModelLoaderFactory;
+import com.bumptech.glide.load.model.MultiModelLoaderFactory;
+import com.bumptech.glide.signature.ObjectKey;
+import com.example.disasterzone.model.Post;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.FirebaseDatabase;
+
+import java.io.FileNotFoundException;
+import java.nio.ByteBuffer;
+
+/**
+ * Turns a {@link PostImage} into encoded image bytes for Glide. Thumbnails fall back to the full
+ * image for posts uploaded before thumbnails existed; chunked images are reassembled as
+ * their chunks arrive. Fetching the payload from the database and the Base64 decode both
+ * run inside the fetcher, i.e. on Glide's source executor, never on the UI thread.
+ */
+public class PostImageModelLoader implements ModelLoader<PostImage, ByteBuffer> {
+
+    @Override
+    public LoadData<ByteBuffer> buildLoadData(@NonNull PostImage model, int width, int height, @NonNull Options options) {
+        return new LoadData<>(new ObjectKey(model.cacheKey()), new PostImageFetcher(model));
+    }
+
+    @Override
+    public boolean handles(@NonNull PostImage model) {
+        return true;
+    }
+
+    private static class PostImageFetcher implements DataFetcher<ByteBuffer> {
+        private final PostImage model;
+
+        PostImageFetcher(PostImage model) {
+            this.model = model;
+        }
+
+        @Override
+        public void loadData(@NonNull Priority priority, @NonNull DataCallback<? super ByteBuffer> callback) {
+            try {
+                byte[] bytes = fetch();
+                if (bytes == null || bytes.length == 0) {
+                    callback.onLoadFailed(new FileNotFoundException("No image for post " + model.postId));
+                    return;
+                }
+                callback.onDataReady(ByteBuffer.wrap(bytes));
+            } catch (Exception e) {
+                callback.onLoadFailed(e);
+            }
+        }
+
+        // Blocking is fine here, Glide calls us on a background thread
+        private byte[] fetch() throws Exception {
+            DatabaseReference root = FirebaseDatabase.getInstance().getReference();
+
+            // 1. Thumbnail, when asked for one and the post has (or may have) it
+            if (model.thumbnail && (model.thumbPath != null || !model.layoutKnown)) {
+                String path = model.thumbPath != null ? model.thumbPath : Post.THUMBS_NODE + "/" + model.postId;
+                String base64 = read(root.child(path));
+                if (base64 != null) return decode(base64);
+            }
+
+            // 2. Full image: chunked, inline on legacy posts, or in its own node
+            if (model.imageChunks > 0 && model.imagePath != null) {
+                return ImageChunks.read(root.child(model.imagePath), model.imageChunks, model.imageBytes);
+            }
+            if (model.inlineBase64 != null && !model.inlineBase64.isEmpty()) return decode(model.inlineBase64);
+            if (model.imagePath != null || !model.layoutKnown) {
+                String path = model.imagePath != null ? model.imagePath : Post.IMAGES_NODE + "/" + model.postId;
+                String base64 = read(root.child(path));
+                if (base64 != null) return decode(base64);
+            }
+
+            // 3. Post written before images were split out
+            if (!model.layoutKnown) {
+                return decode(read(root.child("posts").child(model.postId).child("imageUrl")));
+            }
+            return null;
+        }
+
+        // Exact-size array rather than the pooled buffer: Glide may still read it
+        // after this returns, when it writes the source to its disk cache
+        private static byte[] decode(String base64) {
+            return base64 == null ? null : Base64Codec.decode(base64);
+        }
+
+        private String read(DatabaseReference ref) throws Exception {
+            DataSnapshot snapshot = Tasks.await(ref.get());
+            return snapshot.getValue(String.class);
+        }
+
+        @Override
+        public void cleanup() {}
+
+        @Override
+        public void cancel() {}
+
+        @NonNull
+        @Override
+        public Class<ByteBuffer> getDataClass() {
+            return ByteBuffer.class;
+        }
+
+        @NonNull
+        @Override
+        public DataSource getDataSource() {
+            return DataSource.REMOTE;
+        }
+    }
+
+    public static class Factory implements ModelLoaderFactory<PostImage, ByteBuffer> {
+        @NonNull
+        @Override
+        public ModelLoader<PostImage, ByteBuffer> build(@NonNull MultiModelLoaderFactory multiFactory) {
+            return new PostImageModelLoader();
+        }
+
+        @Override
+        public void teardown() {}
+    }
+}
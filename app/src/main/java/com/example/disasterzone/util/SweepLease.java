@@ -0,0 +1,133 @@
+package com.example.disasterzone.util;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.MutableData;
+import com.google.firebase.database.Transaction;
+import com.google.firebase.database.ValueEventListener;
+
+import java.util.UUID;
+
+/**
+ * Time-limited lease in the database that picks one client to run a periodic job.
+ * Every client calls {@link #runIfLeader} on its own timer; a transaction on
+ * meta/leases/{name} grants the lease to the caller if it is free, expired or already
+ * theirs, and the job runs only when the last run, by any holder, is an interval old.
+ * A holder that disappears stops renewing, so another client takes over once the lease expires.
+ */
+public class SweepLease {
+
+    private static final String TAG = "SweepLease";
+    private static final String PREF_CLIENT_ID = "leaseClientId";
+
+    private final DatabaseReference leaseRef;
+    private final DatabaseReference offsetRef;
+    private final String holderId;
+    private final long leaseMs;
+    private final long intervalMs;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    // Lease times are compared in server time, so device clocks do not matter
+    private long serverOffset;
+    private final ValueEventListener offsetListener = new ValueEventListener() {
+        @Override
+        public void onDataChange(@NonNull DataSnapshot snapshot) {
+            Long offset = snapshot.getValue(Long.class);
+            serverOffset = offset != null ? offset : 0;
+        }
+
+        @Override
+        public void onCancelled(@NonNull DatabaseError error) {}
+    };
+
+    public SweepLease(DatabaseReference root, String name, String holderId, long leaseMs, long intervalMs) {
+        this.leaseRef = root.child("meta").child("leases").child(name);
+        this.offsetRef = root.child(".info").child("serverTimeOffset");
+        this.holderId = holderId;
+        this.leaseMs = leaseMs;
+        this.intervalMs = intervalMs;
+        offsetRef.addValueEventListener(offsetListener);
+    }
+
+    /** Stable per install, so two devices on one account are still separate holders. */
+    public static String clientId(Context context) {
+        SharedPreferences prefs = context.getSharedPreferences("DisasterPrefs", Context.MODE_PRIVATE);
+        String id = prefs.getString(PREF_CLIENT_ID, null);
+        if (id == null) {
+            id = UUID.randomUUID().toString();
+            prefs.edit().putString(PREF_CLIENT_ID, id).apply();
+        }
+        return id;
+    }
+
+    /** Claims or renews the lease; runs {@code job} on the main thread if this client holds it and a run is due. */
+    public void runIfLeader(Runnable job) {
+        leaseRef.runTransaction(new Transaction.Handler() {
+            private boolean due;
+
+            @NonNull
+            @Override
+            public Transaction.Result doTransaction(@NonNull MutableData current) {
+                long now = serverNow();
+                String holder = current.child("holder").getValue(String.class);
+                Long expiresAt = current.child("expiresAt").getValue(Long.class);
+                Long lastRunAt = current.child("lastRunAt").getValue(Long.class);
+
+                boolean heldByOther = holder != null && !holder.equals(holderId)
+                        && expiresAt != null && expiresAt > now;
+                if (heldByOther) return Transaction.abort();
+
+                current.child("holder").setValue(holderId);
+                current.child("expiresAt").setValue(now + leaseMs);
+                due = lastRunAt == null || now - lastRunAt >= intervalMs;
+                if (due) current.child("lastRunAt").setValue(now);
+                return Transaction.success(current);
+            }
+
+            @Override
+            public void onComplete(@Nullable DatabaseError error, boolean committed, @Nullable DataSnapshot snapshot) {
+                if (error != null) {
+                    Log.w(TAG, "Lease claim failed", error.toException());
+                    return;
+                }
+                if (committed && due) mainHandler.post(job);
+            }
+        });
+    }
+
+    /** Gives the lease up early so the next client does not wait for it to expire. */
+    public void release() {
+        offsetRef.removeEventListener(offsetListener);
+        mainHandler.removeCallbacksAndMessages(null);
+        leaseRef.runTransaction(new Transaction.Handler() {
+            @NonNull
+            @Override
+            public Transaction.Result doTransaction(@NonNull MutableData current) {
+                if (!holderId.equals(current.child("holder").getValue(String.class))) {
+                    return Transaction.abort();
+                }
+                // Keep lastRunAt so the next holder does not run again right away
+                current.child("holder").setValue(null);
+                current.child("expiresAt").setValue(null);
+                return Transaction.success(current);
+            }
+
+            @Override
+            public void onComplete(@Nullable DatabaseError error, boolean committed, @Nullable DataSnapshot snapshot) {}
+        });
+    }
+
+    private long serverNow() {
+        return System.currentTimeMillis() + serverOffset;
+    }
+}
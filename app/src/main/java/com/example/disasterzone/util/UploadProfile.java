@@ -0,0 +1,54 @@
+package com.example.disasterzone.util;
+
+import android.content.Context;
+import android.net.ConnectivityManager;
+import android.net.Network;
+import android.net.NetworkCapabilities;
+
+/**
+ * Size limits for report photos. Chosen from the network when the report is queued:
+ * cellular links below {@link #SLOW_LINK_KBPS}, Data Saver, and no network at all get
+ * the low-bandwidth profile, since those reports will most likely leave over a poor link.
+ */
+public final class UploadProfile {
+
+    static final int SLOW_LINK_KBPS = 2000;
+
+    public static final UploadProfile NORMAL =
+            new UploadProfile("normal", Integer.MAX_VALUE, ImageUtil.IMAGE_MAX_BYTES, ImageUtil.THUMB_MAX_BYTES);
+    public static final UploadProfile LOW_BANDWIDTH =
+            new UploadProfile("low-bandwidth", 640, 40 * 1024, 4 * 1024);
+
+    public final String name;
+    public final int maxLongEdge; // Further cap on top of the upload_long_edge resource
+    public final int imageMaxBytes;
+    public final int thumbMaxBytes;
+
+    private UploadProfile(String name, int maxLongEdge, int imageMaxBytes, int thumbMaxBytes) {
+        this.name = name;
+        this.maxLongEdge = maxLongEdge;
+        this.imageMaxBytes = imageMaxBytes;
+        this.thumbMaxBytes = thumbMaxBytes;
+    }
+
+    public static UploadProfile forCurrentNetwork(Context context) {
+        ConnectivityManager cm = (ConnectivityManager) context.getSystemService(Context.CONNECTIVITY_SERVICE);
+        if (cm == null) return NORMAL;
+        if (cm.getRestrictBackgroundStatus() == ConnectivityManager.RESTRICT_BACKGROUND_STATUS_ENABLED) {
+            return LOW_BANDWIDTH;
+        }
+        Network network = cm.getActiveNetwork();
+        NetworkCapabilities caps = network != null ? cm.getNetworkCapabilities(network) : null;
+        if (caps == null) return LOW_BANDWIDTH;
+        if (caps.hasTransport(NetworkCapabilities.TRANSPORT_WIFI)
+                || caps.hasTransport(NetworkCapabilities.TRANSPORT_ETHERNET)) {
+            return NORMAL;
+        }
+        int kbps = caps.getLinkDownstreamBandwidthKbps();
+        return kbps > 0 && kbps < SLOW_LINK_KBPS ? LOW_BANDWIDTH : NORMAL;
+    }
+
+    public int longEdge(int configured) {
+        return Math.min(configured, maxLongEdge);
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.disasterzone.map;
+
+import com.example.disasterzone.util.GeoUtil;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks {@link SpatialIndex} against a brute-force scan over 100k points. Points
+ * cluster around a few cities like real reports do. Timings are in SpatialIndexBenchmark.
+ */
+public class SpatialIndexTest {
+
+    private static final int POINTS = 100_000;
+    private static final int QUERIES = 50;
+
+    private final Random random = new Random(42);
+    private final SpatialIndex index = new SpatialIndex();
+    private double[] lats;
+    private double[] lons;
+
+    @Before
+    public void setUp() {
+        double[][] centers = {{3.139, 101.6869}, {1.3521, 103.8198}, {-6.2088, 106.8456}, {14.5995, 120.9842}};
+        lats = new double[POINTS];
+        lons = new double[POINTS];
+        for (int i = 0; i < POINTS; i++) {
+            double[] center = centers[i % centers.length];
+            lats[i] = center[0] + random.nextGaussian() * 0.5;
+            lons[i] = center[1] + random.nextGaussian() * 0.5;
+            index.put(id(i), lats[i], lons[i]);
+        }
+    }
+
+    @Test
+    public void radiusMatchesBruteForce() {
+        for (int q = 0; q < QUERIES; q++) {
+            int anchor = random.nextInt(POINTS);
+            double lat = lats[anchor] + random.nextGaussian() * 0.01;
+            double lon = lons[anchor] + random.nextGaussian() * 0.01;
+            double radius = 0.5 + random.nextDouble() * 10;
+
+            List<SpatialIndex.Hit> hits = index.withinRadius(lat, lon, radius);
+            List<Double> expected = new ArrayList<>();
+            for (int i = 0; i < POINTS; i++) {
+                double d = GeoUtil.distanceKm(lat, lon, lats[i], lons[i]);
+                if (d <= radius) expected.add(d);
+            }
+            assertEquals(expected.size(), hits.size());
+            for (int i = 1; i < hits.size(); i++) {
+                assertTrue(hits.get(i - 1).distanceKm <= hits.get(i).distanceKm);
+            }
+        }
+    }
+
+    @Test
+    public void nearestMatchesBruteForce() {
+        for (int q = 0; q < QUERIES; q++) {
+            // Include queries far away from every point
+            double lat = q % 10 == 0 ? 40 + random.nextDouble() * 10 : lats[random.nextInt(POINTS)];
+            double lon = q % 10 == 0 ? -20 + random.nextDouble() * 10 : lons[random.nextInt(POINTS)];
+            int k = 1 + random.nextInt(20);
+
+            List<SpatialIndex.Hit> hits = index.nearest(lat, lon, k);
+            List<Double> expected = bruteForceNearest(lat, lon, k);
+            assertEquals(k, hits.size());
+            for (int i = 0; i < k; i++) {
+                assertEquals(expected.get(i), hits.get(i).distanceKm, 1e-9);
+            }
+        }
+    }
+
+    @Test
+    public void updatesMoveAndRemovePoints() {
+        index.put("moved", 3.139, 101.6869);
+        index.put("moved", 51.5, -0.12);
+        assertEquals("moved", index.nearest(51.5, -0.12, 1).get(0).id);
+        assertEquals(1, index.withinRadius(51.5, -0.12, 1).size());
+
+        assertTrue(index.remove("moved"));
+        assertFalse(index.remove("moved"));
+        assertTrue(index.withinRadius(51.5, -0.12, 1).isEmpty());
+        assertEquals(POINTS, index.size());
+    }
+
+    private List<Double> bruteForceNearest(double lat, double lon, int k) {
+        List<Double> distances = new ArrayList<>(POINTS);
+        for (int i = 0; i < POINTS; i++) {
+            distances.add(GeoUtil.distanceKm(lat, lon, lats[i], lons[i]));
+        }
+        Collections.sort(distances);
+        return distances.subList(0, k);
+    }
+
+    private static String id(int i) {
+        return "post" + i;
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.disasterzone.util;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.util.Base64;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks {@link Base64Codec} against java.util.Base64, including the line-wrapped form
+ * older posts were stored in. Allocations are compared in Base64CodecBenchmark.
+ */
+public class Base64CodecTest {
+
+    private final Random random = new Random(42);
+
+    @Test
+    public void matchesJdkForAllTailLengths() {
+        for (int size = 0; size < 300; size++) {
+            byte[] bytes = randomBytes(size);
+            String expected = Base64.getEncoder().encodeToString(bytes);
+            assertEquals(expected, Base64Codec.encode(bytes));
+            assertArrayEquals(bytes, Base64Codec.decode(expected));
+        }
+    }
+
+    @Test
+    public void encoderHandlesOddWriteBoundaries() throws Exception {
+        byte[] bytes = randomBytes(10_000);
+        Base64Codec.Encoder encoder = new Base64Codec.Encoder(16);
+        for (int off = 0; off < bytes.length; ) {
+            int len = Math.min(bytes.length - off, 1 + random.nextInt(7));
+            if (len == 1) encoder.write(bytes[off]); else encoder.write(bytes, off, len);
+            off += len;
+        }
+        assertEquals(bytes.length, encoder.byteCount());
+        assertEquals(Base64.getEncoder().encodeToString(bytes), encoder.toString());
+        // toString does not consume the pending tail
+        assertEquals(encoder.toString(), encoder.toString());
+
+        String streamed = Base64Codec.encode(new ByteArrayInputStream(bytes), bytes.length);
+        assertEquals(Base64.getEncoder().encodeToString(bytes), streamed);
+    }
+
+    @Test
+    public void decodesLineWrappedInput() {
+        byte[] bytes = randomBytes(5_000);
+        // Same shape android.util.Base64.DEFAULT wrote for older posts
+        String wrapped = Base64.getMimeEncoder(76, "\n".getBytes()).encodeToString(bytes) + "\n";
+        assertEquals(bytes.length, Base64Codec.decodedLength(wrapped));
+        assertArrayEquals(bytes, Base64Codec.decode(wrapped));
+
+        Base64Codec.Decoded pooled = Base64Codec.decodePooled(wrapped);
+        assertEquals(bytes.length, pooled.length);
+        for (int i = 0; i < bytes.length; i++) assertEquals(bytes[i], pooled.data[i]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsForeignCharacters() {
+        Base64Codec.decode("ab*d");
+    }
+
+    private byte[] randomBytes(int size) {
+        byte[] bytes = new byte[size];
+        random.nextBytes(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.disasterzone.macrobenchmark;
+
+import androidx.benchmark.macro.MacrobenchmarkScope;
+import androidx.test.uiautomator.By;
+import androidx.test.uiautomator.BySelector;
+import androidx.test.uiautomator.UiDevice;
+import androidx.test.uiautomator.UiObject2;
+import androidx.test.uiautomator.Until;
+
+/**
+ * UI steps shared by the benchmarks.
+ */
+final class BenchmarkFlows {
+
+    static final String PACKAGE = "com.example.disasterzone";
+    private static final long TIMEOUT_MS = 15_000;
+
+    private BenchmarkFlows() {
+    }
+
+    static BySelector res(String id) {
+        return By.res(PACKAGE, id);
+    }
+
+    // Logs in with the seeded account if the app shows the login screen; the session
+    // is persisted, so later launches go straight to the feed
+    static void signInIfNeeded(MacrobenchmarkScope scope) {
+        UiDevice device = scope.getDevice();
+        if (!device.wait(Until.hasObject(res("etEmail")), 3_000)) return;
+
+        device.findObject(res("etEmail")).setText(EmulatorSeeder.EMAIL);
+        device.findObject(res("etPassword")).setText(EmulatorSeeder.PASSWORD);
+        device.findObject(res("btnLogin")).click();
+        waitForFeedRows(device);
+    }
+
+    static UiObject2 waitForFeedRows(UiDevice device) {
+        if (!device.wait(Until.hasObject(res("recyclerView").hasDescendant(res("postCard"))), TIMEOUT_MS)) {
+            throw new AssertionError("Feed rows not shown, is the Firebase emulator running and seeded?");
+        }
+        return device.findObject(res("recyclerView"));
+    }
+
+    static UiObject2 openMap(UiDevice device) {
+        waitForFeedRows(device);
+        device.findObject(res("btnNavMap")).click();
+        if (!device.wait(Until.hasObject(res("mapView")), TIMEOUT_MS)) {
+            throw new AssertionError("MapActivity did not open");
+        }
+        return device.findObject(res("mapView"));
+    }
+}
@@ -0,0 +1,228 @@
+package com.example.disasterzone.macrobenchmark;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.LinearGradient;
+import android.graphics.Paint;
+import android.graphics.Shader;
+import android.util.Base64;
+
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+/**
+ * Fills the local Firebase emulator with a fixed synthetic data set over its REST API:
+ * one benchmark account, {@link #POST_COUNT} posts with a photo and a thumbnail,
+ * {@link #MAP_ZONE_COUNT} of them around the map's default center. The database is wiped
+ * and rewritten at the start of every run, with timestamps at fixed offsets from that
+ * moment, so every run sees the same data and runs are comparable between commits.
+ * Background jobs that would rewrite it mid-run are switched off in the seed: the
+ * migrations are marked done and the sweep leases last ran in the future.
+ */
+public final class EmulatorSeeder {
+
+    public static final String EMAIL = "bench@disasterzone.test";
+    public static final String PASSWORD = "benchmark-password";
+    public static final int POST_COUNT = 1200;
+    public static final int MAP_ZONE_COUNT = 400;
+
+    // SweepLease names in MapActivity; a lastRunAt this far ahead keeps them from ever being due
+    private static final String[] LEASES = {"expirySweep", "likeReconcile"};
+    private static final long LEASE_PARKED_MS = 365L * 24 * 60 * 60_000L;
+    // Done flags of the one-time migrations FeedActivity starts
+    private static final String[] MIGRATIONS = {"postThumbs", "geohash", "postLikes"};
+    // Photos are written in slices so no single request gets too large
+    private static final int IMAGE_BATCH = 200;
+    // The app's database URL decides the namespace, even on the demo emulator project
+    private static final String NAMESPACE = "disasterzone-ae0f7-default-rtdb";
+    private static final int DATABASE_PORT = 9000;
+    private static final int AUTH_PORT = 9099;
+
+    // MapActivity's default center (Kuala Lumpur)
+    private static final double CENTER_LAT = 3.1390;
+    private static final double CENTER_LON = 101.6869;
+
+    // Once per instrumentation run, shared by every benchmark class in it
+    private static boolean seeded;
+
+    private EmulatorSeeder() {
+    }
+
+    public static synchronized void ensureSeeded() throws IOException, JSONException {
+        if (seeded) return;
+        String host = InstrumentationRegistry.getArguments().getString("firebaseEmulatorHost", "10.0.2.2");
+
+        String uid = ensureAccount(host);
+        // Whatever an earlier run left behind (likes, ended posts, leases) goes first
+        request("DELETE", databaseUrl(host, ""), null);
+        writeData(host, uid);
+        seeded = true;
+    }
+
+    private static String ensureAccount(String host) throws IOException, JSONException {
+        JSONObject body = new JSONObject()
+                .put("email", EMAIL)
+                .put("password", PASSWORD)
+                .put("returnSecureToken", true);
+        String base = "http://" + host + ":" + AUTH_PORT + "/identitytoolkit.googleapis.com/v1/accounts:";
+        try {
+            return new JSONObject(request("POST", base + "signUp?key=fake-api-key", body.toString())).getString("localId");
+        } catch (IOException alreadyExists) {
+            return new JSONObject(request("POST", base + "signInWithPassword?key=fake-api-key", body.toString())).getString("localId");
+        }
+    }
+
+    private static void writeData(String host, String uid) throws IOException, JSONException {
+        Random random = new Random(42);
+        long now = System.currentTimeMillis();
+        String[] thumbs = new String[8];
+        String[] photos = new String[thumbs.length];
+        for (int i = 0; i < thumbs.length; i++) {
+            thumbs[i] = image(i, 200, 150, 40);
+            photos[i] = image(i, 800, 600, 60);
+        }
+
+        JSONObject posts = new JSONObject();
+        JSONObject postThumbs = new JSONObject();
+        JSONObject postImages = new JSONObject();
+        for (int i = 0; i < POST_COUNT; i++) {
+            String postId = String.format("bench%05d", i);
+            boolean nearCenter = i < MAP_ZONE_COUNT;
+            boolean active = i % 10 != 0;
+
+            double latitude = nearCenter ? CENTER_LAT + (random.nextDouble() - 0.5) * 0.1 : 1.0 + random.nextDouble() * 5.5;
+            double longitude = nearCenter ? CENTER_LON + (random.nextDouble() - 0.5) * 0.1 : 100.0 + random.nextDouble() * 19.0;
+
+            JSONObject post = new JSONObject()
+                    .put("postId", postId)
+                    .put("userId", "bench-user-" + (i % 25))
+                    .put("username", "Reporter " + (i % 25))
+                    .put("description", "Synthetic report #" + i + ": flooding and blocked roads near sector " + (i % 40))
+                    .put("latitude", latitude)
+                    .put("longitude", longitude)
+                    .put("geohash", geohash(latitude, longitude))
+                    .put("timestamp", now - i * 60_000L)
+                    .put("isActive", active)
+                    .put("endedTimestamp", active ? 0 : now - 60 * 60_000L)
+                    .put("likeCount", random.nextInt(50))
+                    .put("imagePath", "postImages/" + postId)
+                    .put("imageWidth", 800)
+                    .put("imageHeight", 600)
+                    .put("thumbPath", "postThumbs/" + postId);
+            posts.put(postId, post);
+            postThumbs.put(postId, thumbs[i % thumbs.length]);
+            postImages.put(postId, photos[i % photos.length]);
+            if (postImages.length() == IMAGE_BATCH) {
+                request("PATCH", databaseUrl(host, "postImages"), postImages.toString());
+                postImages = new JSONObject();
+            }
+        }
+        if (postImages.length() > 0) {
+            request("PATCH", databaseUrl(host, "postImages"), postImages.toString());
+        }
+
+        JSONObject user = new JSONObject().put("username", "Benchmark").put("email", EMAIL);
+        JSONObject migrations = new JSONObject();
+        for (String name : MIGRATIONS) migrations.put(name, true);
+        JSONObject leases = new JSONObject();
+        for (String name : LEASES) leases.put(name, new JSONObject().put("lastRunAt", now + LEASE_PARKED_MS));
+
+        request("PUT", databaseUrl(host, "posts"), posts.toString());
+        request("PUT", databaseUrl(host, "postThumbs"), postThumbs.toString());
+        request("PUT", databaseUrl(host, "users/" + uid), user.toString());
+        request("PUT", databaseUrl(host, "meta/migrations"), migrations.toString());
+        request("PUT", databaseUrl(host, "meta/leases"), leases.toString());
+    }
+
+    // Same encoding as the app's util.GeoHash at its stored precision (the test APK
+    // does not ship app classes)
+    private static String geohash(double latitude, double longitude) {
+        String base32 = "0123456789bcdefghjkmnpqrstuvwxyz";
+        double[] lat = {-90, 90};
+        double[] lon = {-180, 180};
+        StringBuilder hash = new StringBuilder();
+        int bits = 0, ch = 0;
+        boolean even = true;
+        while (hash.length() < 9) {
+            double[] range = even ? lon : lat;
+            double value = even ? longitude : latitude;
+            double mid = (range[0] + range[1]) / 2;
+            ch <<= 1;
+            if (value >= mid) {
+                ch |= 1;
+                range[0] = mid;
+            } else {
+                range[1] = mid;
+            }
+            even = !even;
+            if (++bits == 5) {
+                hash.append(base32.charAt(ch));
+                bits = 0;
+                ch = 0;
+            }
+        }
+        return hash.toString();
+    }
+
+    private static String image(int variant, int width, int height, int quality) {
+        Bitmap bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+        Paint paint = new Paint();
+        paint.setShader(new LinearGradient(0, 0, width, height,
+                Color.HSVToColor(new float[] {variant * 45f, 0.7f, 0.9f}), Color.DKGRAY, Shader.TileMode.CLAMP));
+        new Canvas(bitmap).drawRect(0, 0, width, height, paint);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        bitmap.compress(Bitmap.CompressFormat.JPEG, quality, out);
+        bitmap.recycle();
+        return Base64.encodeToString(out.toByteArray(), Base64.DEFAULT);
+    }
+
+    private static String databaseUrl(String host, String path) {
+        return "http://" + host + ":" + DATABASE_PORT + "/" + path + ".json?ns=" + NAMESPACE;
+    }
+
+    private static String request(String method, String url, String body) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        try {
+            // HttpURLConnection has no PATCH; the database REST API accepts it as an override
+            if ("PATCH".equals(method)) {
+                connection.setRequestMethod("POST");
+                connection.setRequestProperty("X-HTTP-Method-Override", "PATCH");
+            } else {
+                connection.setRequestMethod(method);
+            }
+            // Admin access to the database emulator, bypasses the security rules
+            connection.setRequestProperty("Authorization", "Bearer owner");
+            connection.setRequestProperty("Content-Type", "application/json");
+            if (body != null) {
+                connection.setDoOutput(true);
+                try (OutputStream out = connection.getOutputStream()) {
+                    out.write(body.getBytes(StandardCharsets.UTF_8));
+                }
+            }
+            int code = connection.getResponseCode();
+            if (code >= 400) throw new IOException(method + " " + url + " failed with HTTP " + code);
+            try (InputStream in = connection.getInputStream()) {
+                ByteArrayOutputStream response = new ByteArrayOutputStream();
+                byte[] buffer = new byte[8192];
+                int n;
+                while ((n = in.read(buffer)) != -1) response.write(buffer, 0, n);
+                return response.toString("UTF-8");
+            }
+        } finally {
+            connection.disconnect();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.disasterzone.macrobenchmark;
+
+import androidx.benchmark.macro.CompilationMode;
+import androidx.benchmark.macro.FrameTimingMetric;
+import androidx.benchmark.macro.StartupMode;
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.uiautomator.Direction;
+import androidx.test.uiautomator.UiObject2;
+
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Collections;
+
+import kotlin.Unit;
+
+/**
+ * Frame timing while flinging through the seeded feed, which pages in older posts
+ * as it goes.
+ */
+@RunWith(AndroidJUnit4.class)
+public class FeedScrollBenchmark {
+
+    private static final int FLINGS = 8;
+
+    @Rule
+    public MacrobenchmarkRule benchmarkRule = new MacrobenchmarkRule();
+
+    @BeforeClass
+    public static void seed() throws Exception {
+        EmulatorSeeder.ensureSeeded();
+    }
+
+    @Test
+    public void flingFeed() {
+        benchmarkRule.measureRepeated(
+                BenchmarkFlows.PACKAGE,
+                Collections.singletonList(new FrameTimingMetric()),
+                new CompilationMode.Partial(),
+                StartupMode.WARM,
+                5,
+                scope -> {
+                    scope.startActivityAndWait();
+                    BenchmarkFlows.signInIfNeeded(scope);
+                    return Unit.INSTANCE;
+                },
+                scope -> {
+                    UiObject2 feed = BenchmarkFlows.waitForFeedRows(scope.getDevice());
+                    // Keep gestures clear of the bottom navigation and system gesture areas
+                    feed.setGestureMargin(scope.getDevice().getDisplayWidth() / 5);
+                    for (int i = 0; i < FLINGS; i++) {
+                        feed.fling(Direction.DOWN);
+                        scope.getDevice().waitForIdle();
+                    }
+                    for (int i = 0; i < FLINGS; i++) {
+                        feed.fling(Direction.UP);
+                        scope.getDevice().waitForIdle();
+                    }
+                    return Unit.INSTANCE;
+                });
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.disasterzone.macrobenchmark;
+
+import androidx.benchmark.macro.CompilationMode;
+import androidx.benchmark.macro.FrameTimingMetric;
+import androidx.benchmark.macro.StartupMode;
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.uiautomator.Direction;
+import androidx.test.uiautomator.UiObject2;
+
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Collections;
+
+import kotlin.Unit;
+
+/**
+ * Frame timing while panning and zooming MapActivity over the seeded zones
+ * ({@link EmulatorSeeder#MAP_ZONE_COUNT} of them around the default center).
+ */
+@RunWith(AndroidJUnit4.class)
+public class MapPanBenchmark {
+
+    @Rule
+    public MacrobenchmarkRule benchmarkRule = new MacrobenchmarkRule();
+
+    @BeforeClass
+    public static void seed() throws Exception {
+        EmulatorSeeder.ensureSeeded();
+    }
+
+    @Test
+    public void panAndZoomMap() {
+        benchmarkRule.measureRepeated(
+                BenchmarkFlows.PACKAGE,
+                Collections.singletonList(new FrameTimingMetric()),
+                new CompilationMode.Partial(),
+                StartupMode.WARM,
+                5,
+                scope -> {
+                    scope.startActivityAndWait();
+                    BenchmarkFlows.signInIfNeeded(scope);
+                    BenchmarkFlows.openMap(scope.getDevice());
+                    // Let the zones load before measuring
+                    scope.getDevice().waitForIdle(5_000);
+                    return Unit.INSTANCE;
+                },
+                scope -> {
+                    UiObject2 map = scope.getDevice().findObject(BenchmarkFlows.res("mapView"));
+                    map.setGestureMargin(scope.getDevice().getDisplayWidth() / 10);
+                    map.swipe(Direction.LEFT, 0.6f);
+                    map.swipe(Direction.UP, 0.6f);
+                    map.swipe(Direction.RIGHT, 0.6f);
+                    map.swipe(Direction.DOWN, 0.6f);
+                    map.pinchClose(0.6f);
+                    map.pinchOpen(0.6f);
+                    scope.getDevice().waitForIdle();
+                    return Unit.INSTANCE;
+                });
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.disasterzone.macrobenchmark;
+
+import androidx.benchmark.macro.CompilationMode;
+import androidx.benchmark.macro.StartupMode;
+import androidx.benchmark.macro.StartupTimingMetric;
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Collections;
+
+import kotlin.Unit;
+
+/**
+ * Launch from LoginActivity (signed in, so it forwards) until FeedActivity has drawn its
+ * first rows. timeToFullDisplayMs comes from FeedActivity's reportFullyDrawn call.
+ */
+@RunWith(AndroidJUnit4.class)
+public class StartupBenchmark {
+
+    @Rule
+    public MacrobenchmarkRule benchmarkRule = new MacrobenchmarkRule();
+
+    @BeforeClass
+    public static void seed() throws Exception {
+        EmulatorSeeder.ensureSeeded();
+    }
+
+    @Test
+    public void coldStartup() {
+        startup(StartupMode.COLD);
+    }
+
+    @Test
+    public void warmStartup() {
+        startup(StartupMode.WARM);
+    }
+
+    private void startup(StartupMode mode) {
+        benchmarkRule.measureRepeated(
+                BenchmarkFlows.PACKAGE,
+                Collections.singletonList(new StartupTimingMetric()),
+                new CompilationMode.Partial(),
+                mode,
+                10,
+                scope -> {
+                    // Sign in once outside the measured part, then start from the launcher
+                    scope.startActivityAndWait();
+                    BenchmarkFlows.signInIfNeeded(scope);
+                    scope.pressHome();
+                    return Unit.INSTANCE;
+                },
+                scope -> {
+                    scope.startActivityAndWait();
+                    BenchmarkFlows.waitForFeedRows(scope.getDevice());
+                    return Unit.INSTANCE;
+                });
+    }
+}